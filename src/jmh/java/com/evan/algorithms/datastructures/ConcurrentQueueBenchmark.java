@@ -0,0 +1,138 @@
+package com.evan.algorithms.datastructures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 多线程争用下的无锁队列，以java.util.concurrent.ConcurrentLinkedQueue和加锁的Queue作为参照。
+ * 每次迭代前重新建立队列，预先放入size个元素，pair：每个线程入队一个再出队一个，线程数用-t指定：
+ * <pre>
+ * for t in 1 2 4 8 16 32 64; do java -jar target/benchmarks.jar 'ConcurrentQueueBenchmark.*[pP]air' -t $t; done
+ * </pre>
+ * mpmc：4个生产者只入队、4个消费者只出队，分别统计两侧的吞吐量。
+ * 生产者比消费者快时，积压的元素超过MAX_BACKLOG后跳过入队并返回false(与LongRingBufferBenchmark中
+ * tryClaim失败相同)，队列不会无限增长，结果测量的是争用而不是分配和GC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentQueueBenchmark {
+    private static final int MAX_BACKLOG = 1 << 16;
+    // 生产者每隔这么多次调用读取一次积压的个数，LongAdder.sum()要遍历所有单元
+    private static final int CHECK_INTERVAL = 64;
+
+    @Param({"0", "1000"})
+    public int size;
+
+    private final Integer value = 1000;
+
+    private ConcurrentQueue<Integer> lockFree;
+    private ConcurrentLinkedQueue<Integer> jdk;
+    private Queue<Integer> locked;
+    // mpmc中已入队但尚未出队的元素个数(近似值)，不包括预先放入的元素
+    private final LongAdder backlog = new LongAdder();
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        backlog.reset();
+        lockFree = new ConcurrentQueue<>();
+        jdk = new ConcurrentLinkedQueue<>();
+        locked = new Queue<>();
+        for (int i = 0; i < size; i++) {
+            lockFree.enqueue(value);
+            jdk.add(value);
+            locked.enqueue(value);
+        }
+    }
+
+    @Benchmark
+    public Integer pair() {
+        lockFree.enqueue(value);
+        return lockFree.dequeue();
+    }
+
+    @Benchmark
+    public Integer jdkPair() {
+        jdk.add(value);
+        return jdk.poll();
+    }
+
+    @Benchmark
+    public Integer lockedPair() {
+        synchronized (locked) {
+            locked.enqueue(value);
+            return locked.dequeue();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Producer {
+        int calls;
+        boolean full;
+    }
+
+    private boolean full(Producer producer) {
+        if ((producer.calls++ & (CHECK_INTERVAL - 1)) == 0) {
+            producer.full = backlog.sum() >= MAX_BACKLOG;
+        }
+        return producer.full;
+    }
+
+    // 消费者比生产者快时队列经常为空，dequeue返回null；积压过多时生产者跳过入队。这两部分也计入吞吐量
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(4)
+    public boolean produce(Producer producer) {
+        if (full(producer)) return false;
+        lockFree.enqueue(value);
+        backlog.increment();
+        return true;
+    }
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(4)
+    public Integer consume() {
+        Integer x = lockFree.dequeue();
+        if (x != null) backlog.decrement();
+        return x;
+    }
+
+    @Benchmark
+    @Group("jdkMpmc")
+    @GroupThreads(4)
+    public boolean jdkProduce(Producer producer) {
+        if (full(producer)) return false;
+        jdk.add(value);
+        backlog.increment();
+        return true;
+    }
+
+    @Benchmark
+    @Group("jdkMpmc")
+    @GroupThreads(4)
+    public Integer jdkConsume() {
+        Integer x = jdk.poll();
+        if (x != null) backlog.decrement();
+        return x;
+    }
+}
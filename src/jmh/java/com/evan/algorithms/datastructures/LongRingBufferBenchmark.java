@@ -0,0 +1,117 @@
+package com.evan.algorithms.datastructures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 环形缓冲区在生产者和消费者之间传递打包的边，以java.util.concurrent.ArrayBlockingQueue作为参照。
+ * 每次调用生产或消费至多batch个元素，返回实际的个数，缓冲区满或空时立即返回0，
+ * 因此吞吐量是调用次数，每秒传递的边数约为吞吐量乘以batch。
+ * 基准测试中只使用不等待的tryClaim和drain，迭代结束时不会有线程阻塞在满或空的缓冲区上
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LongRingBufferBenchmark {
+    @Param({"1", "64"})
+    public int batch;
+
+    private LongRingBuffer buffer;
+    private ArrayBlockingQueue<Long> jdk;
+
+    @Setup
+    public void setup() {
+        buffer = new LongRingBuffer(1 << 16);
+        jdk = new ArrayBlockingQueue<>(1 << 16);
+    }
+
+    @State(Scope.Thread)
+    public static class Local {
+        final long[] edges = new long[64];
+        int next;
+    }
+
+    private int produce(Local local) {
+        long first = buffer.tryClaim(batch);
+        if (first < 0) return 0;
+        for (int i = 0; i < batch; i++) {
+            buffer.set(first + i, LongRingBuffer.pack(local.next, local.next + 1));
+            local.next++;
+        }
+        buffer.publish(first, batch);
+        return batch;
+    }
+
+    private int consume(Local local) {
+        return buffer.drain(local.edges, 0, batch);
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public int spscProduce(Local local) {
+        return produce(local);
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public int spscConsume(Local local) {
+        return consume(local);
+    }
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(4)
+    public int mpmcProduce(Local local) {
+        return produce(local);
+    }
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(4)
+    public int mpmcConsume(Local local) {
+        return consume(local);
+    }
+
+    // 每个元素装箱为Long，配合-prof gc比较分配速率
+    @Benchmark
+    @Group("jdkMpmc")
+    @GroupThreads(4)
+    public int jdkProduce(Local local) {
+        int n = 0;
+        while (n < batch && jdk.offer(LongRingBuffer.pack(local.next, local.next + 1))) {
+            local.next++;
+            n++;
+        }
+        return n;
+    }
+
+    @Benchmark
+    @Group("jdkMpmc")
+    @GroupThreads(4)
+    public int jdkConsume(Local local) {
+        int n = 0;
+        for (Long edge; n < batch && (edge = jdk.poll()) != null; n++) {
+            local.edges[n] = edge;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,124 @@
+package com.evan.algorithms.datastructures;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 链表和数组实现的栈、队列，以及java.util.ArrayDeque作为参照。
+ * fill：先放入size个元素再全部取出；window：队列保持size个元素，每次放入一个再取出一个，
+ * 节点重用的Queue在这种稳定状态下不再分配节点。配合-prof gc比较每次操作分配的字节数
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StackQueueBenchmark {
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private final Integer[] values = new Integer[1024];
+
+    private Queue<Integer> linkedWindow;
+    private Queue<Integer> recyclingWindow;
+    private ArrayQueue<Integer> arrayWindow;
+    private ArrayDeque<Integer> dequeWindow;
+
+    @Setup
+    public void setup() {
+        // 预先装箱，只测量数据结构本身的分配
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1000;
+        }
+        linkedWindow = new Queue<>();
+        recyclingWindow = new Queue<>(1024);
+        arrayWindow = new ArrayQueue<>();
+        dequeWindow = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            linkedWindow.enqueue(values[i & 1023]);
+            recyclingWindow.enqueue(values[i & 1023]);
+            arrayWindow.enqueue(values[i & 1023]);
+            dequeWindow.add(values[i & 1023]);
+        }
+    }
+
+    @Benchmark
+    public void stackFill(Blackhole bh) {
+        Stack<Integer> stack = new Stack<>();
+        for (int i = 0; i < size; i++) stack.push(values[i & 1023]);
+        while (!stack.isEmpty()) bh.consume(stack.pop());
+    }
+
+    @Benchmark
+    public void arrayStackFill(Blackhole bh) {
+        ArrayStack<Integer> stack = new ArrayStack<>();
+        for (int i = 0; i < size; i++) stack.push(values[i & 1023]);
+        while (!stack.isEmpty()) bh.consume(stack.pop());
+    }
+
+    @Benchmark
+    public void dequeStackFill(Blackhole bh) {
+        ArrayDeque<Integer> stack = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) stack.push(values[i & 1023]);
+        while (!stack.isEmpty()) bh.consume(stack.pop());
+    }
+
+    @Benchmark
+    public void queueFill(Blackhole bh) {
+        Queue<Integer> q = new Queue<>();
+        for (int i = 0; i < size; i++) q.enqueue(values[i & 1023]);
+        while (!q.isEmpty()) bh.consume(q.dequeue());
+    }
+
+    @Benchmark
+    public void arrayQueueFill(Blackhole bh) {
+        ArrayQueue<Integer> q = new ArrayQueue<>();
+        for (int i = 0; i < size; i++) q.enqueue(values[i & 1023]);
+        while (!q.isEmpty()) bh.consume(q.dequeue());
+    }
+
+    @Benchmark
+    public void dequeQueueFill(Blackhole bh) {
+        ArrayDeque<Integer> q = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) q.add(values[i & 1023]);
+        while (!q.isEmpty()) bh.consume(q.poll());
+    }
+
+    @Benchmark
+    public Integer queueWindow() {
+        linkedWindow.enqueue(values[0]);
+        return linkedWindow.dequeue();
+    }
+
+    @Benchmark
+    public Integer recyclingQueueWindow() {
+        recyclingWindow.enqueue(values[0]);
+        return recyclingWindow.dequeue();
+    }
+
+    @Benchmark
+    public Integer arrayQueueWindow() {
+        arrayWindow.enqueue(values[0]);
+        return arrayWindow.dequeue();
+    }
+
+    @Benchmark
+    public Integer dequeQueueWindow() {
+        dequeWindow.add(values[0]);
+        return dequeWindow.poll();
+    }
+}
@@ -0,0 +1,77 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.io.In;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 从文件构建Graph：Scanner实现的In、单线程的快速In和并行解析的快速In(文件)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphLoadBenchmark {
+    @Param({"100000", "1000000"})
+    public int vertexCount;
+
+    @Param({"4", "16"})
+    public int averageDegree;
+
+    @Param({"uniform"})
+    public String skew;
+
+    @Param({""})
+    public String graphFile;
+
+    private File file;
+
+    @Setup
+    public void setup() {
+        file = SyntheticGraphs.file(graphFile, vertexCount, averageDegree, skew);
+    }
+
+    @Benchmark
+    public Graph scanner() {
+        In in = new In(file);
+        try {
+            return new Graph(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    @Benchmark
+    public Graph tokenizer() throws IOException {
+        // 从InputStream创建的快速In不能并行解析
+        try (FileInputStream is = new FileInputStream(file)) {
+            return new Graph(In.fast(is));
+        }
+    }
+
+    @Benchmark
+    public Graph parallel() {
+        In in = In.fast(file);
+        try {
+            return new Graph(in);
+        } finally {
+            in.close();
+        }
+    }
+}
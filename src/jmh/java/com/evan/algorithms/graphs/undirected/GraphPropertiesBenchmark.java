@@ -0,0 +1,51 @@
+package com.evan.algorithms.graphs.undirected;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GraphProperties对每个顶点做一次BFS，耗时为O(VE)，因此使用比其他基准测试小得多的图
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GraphPropertiesBenchmark {
+    @Param({"1000", "5000"})
+    public int vertexCount;
+
+    @Param({"4", "16"})
+    public int averageDegree;
+
+    @Param({"uniform", "powerlaw"})
+    public String skew;
+
+    @Param({""})
+    public String graphFile;
+
+    private Graph g;
+
+    @Setup
+    public void setup() {
+        g = SyntheticGraphs.load(graphFile, vertexCount, averageDegree, skew);
+    }
+
+    @Benchmark
+    public int graphProperties() {
+        GraphProperties properties = new GraphProperties(g);
+        return properties.diameter() + properties.girth();
+    }
+}
@@ -0,0 +1,75 @@
+package com.evan.algorithms.graphs.undirected;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 遍历类算法的基准测试：吞吐量和耗时的分位数(SampleTime)，配合-prof gc得到每次操作分配的字节数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphTraversalBenchmark {
+    @Param({"100000", "1000000"})
+    public int vertexCount;
+
+    @Param({"4", "16"})
+    public int averageDegree;
+
+    @Param({"uniform", "powerlaw"})
+    public String skew;
+
+    // 非空时读取这个文件中的图，忽略上面三个参数
+    @Param({""})
+    public String graphFile;
+
+    private Graph g;
+    private int source;
+    private int target;
+
+    @Setup
+    public void setup() {
+        g = SyntheticGraphs.load(graphFile, vertexCount, averageDegree, skew);
+        source = 0;
+        target = g.getVertexCount() - 1;
+    }
+
+    @Benchmark
+    public int breadthFirstPaths() {
+        return new BreadthFirstPaths(g, source).distTo(target);
+    }
+
+    @Benchmark
+    public int bidirectionalBFS() {
+        return new BidirectionalBFS(g, source, target).distance();
+    }
+
+    @Benchmark
+    public int connectedComponents() {
+        return new CC(g).count();
+    }
+
+    @Benchmark
+    public int parallelDepthFirstSearch() {
+        return new ParallelDepthFirstSearch(g, source).count();
+    }
+
+    @Benchmark
+    public boolean cycle() {
+        return new Cycle(g).hasCycle();
+    }
+}
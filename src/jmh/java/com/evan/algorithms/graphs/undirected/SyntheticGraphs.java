@@ -0,0 +1,91 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.io.In;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+
+/**
+ * 基准测试使用的图：按参数生成的随机图，或者从文件读取的真实图。
+ * 同样的参数和种子总是生成同样的图，不同版本的测试结果可以直接比较
+ */
+final class SyntheticGraphs {
+    static final long SEED = 20240601L;
+
+    private SyntheticGraphs() {
+    }
+
+    // 有vertexCount个顶点、平均度数为averageDegree的连通图，先生成一棵随机树保证连通，其余的边随机选择端点。
+    // skew为"uniform"时端点均匀分布；为"powerlaw"时编号越小的顶点被选中的概率越大，度数近似幂律分布
+    static Graph generate(int vertexCount, int averageDegree, String skew) {
+        int[] edges = generateEdges(vertexCount, averageDegree, skew);
+        return new Graph(vertexCount, edges, edges.length / 2);
+    }
+
+    // 第i条边为edges[2i]-edges[2i + 1]
+    static int[] generateEdges(int vertexCount, int averageDegree, String skew) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        long edgeCount = Math.max((long) vertexCount * averageDegree / 2, vertexCount - 1);
+        if (edgeCount > Integer.MAX_VALUE / 2)
+            throw new IllegalArgumentException("too many edges: " + edgeCount);
+        int[] edges = new int[(int) (2 * edgeCount)];
+        int k = 0;
+        for (int v = 1; v < vertexCount; v++) {
+            edges[k++] = v;
+            edges[k++] = endpoint(random, v, skew);
+        }
+        while (k < edges.length) {
+            edges[k++] = endpoint(random, vertexCount, skew);
+            edges[k++] = endpoint(random, vertexCount, skew);
+        }
+        return edges;
+    }
+
+    private static int endpoint(SplittableRandom random, int bound, String skew) {
+        switch (skew) {
+            case "uniform":
+                return random.nextInt(bound);
+            case "powerlaw":
+                // u^3把概率集中在编号小的顶点上
+                double u = random.nextDouble();
+                return (int) (bound * u * u * u);
+            default:
+                throw new IllegalArgumentException("unknown skew: " + skew);
+        }
+    }
+
+    // graphFile非空时读取这个文件，否则生成随机图
+    static Graph load(String graphFile, int vertexCount, int averageDegree, String skew) {
+        if (!graphFile.isEmpty()) {
+            return new Graph(In.fast(new File(graphFile)));
+        }
+        return generate(vertexCount, averageDegree, skew);
+    }
+
+    // graphFile非空时直接使用这个文件，否则按Graph(In)读取的格式把随机图写入临时文件
+    static File file(String graphFile, int vertexCount, int averageDegree, String skew) {
+        if (!graphFile.isEmpty()) {
+            return new File(graphFile);
+        }
+        int[] edges = generateEdges(vertexCount, averageDegree, skew);
+        try {
+            File file = File.createTempFile("graph", ".txt");
+            file.deleteOnExit();
+            try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                out.write(vertexCount + "\n" + edges.length / 2 + "\n");
+                for (int k = 0; k < edges.length; k += 2) {
+                    out.write(edges[k] + " " + edges[k + 1] + "\n");
+                }
+            }
+            return file;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
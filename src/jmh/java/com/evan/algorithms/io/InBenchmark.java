@@ -0,0 +1,93 @@
+package com.evan.algorithms.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In.readAllInts：Scanner实现、单线程的ByteTokenizer和按块并行解析
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InBenchmark {
+    @Param({"1000000", "10000000"})
+    public int count;
+
+    // 非空时读取这个文件，忽略count
+    @Param({""})
+    public String inputFile;
+
+    private File file;
+    private boolean temporary;
+
+    @Setup
+    public void setup() throws IOException {
+        if (!inputFile.isEmpty()) {
+            file = new File(inputFile);
+            return;
+        }
+        file = File.createTempFile("ints", ".txt");
+        temporary = true;
+        SplittableRandom random = new SplittableRandom(42);
+        try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < count; i++) {
+                out.write(Integer.toString(random.nextInt(-1000000, 1000000)));
+                out.write(i % 10 == 9 ? '\n' : ' ');
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (temporary) file.delete();
+    }
+
+    @Benchmark
+    public int[] scanner() {
+        In in = new In(file);
+        try {
+            return in.readAllInts();
+        } finally {
+            in.close();
+        }
+    }
+
+    @Benchmark
+    public int[] tokenizer() throws IOException {
+        try (FileInputStream is = new FileInputStream(file)) {
+            return In.fast(is).readAllInts();
+        }
+    }
+
+    @Benchmark
+    public int[] parallel() {
+        In in = In.fast(file);
+        try {
+            return in.readAllInts();
+        } finally {
+            in.close();
+        }
+    }
+}
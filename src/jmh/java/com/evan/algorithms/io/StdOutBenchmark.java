@@ -0,0 +1,81 @@
+package com.evan.algorithms.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StdOut.println的默认模式和缓冲模式。输出被丢弃，否则forked JVM的标准输出会被JMH转发并打印出来：
+ * 默认模式在StdOut初始化之前把System.out换成空的输出流；
+ * 缓冲模式通过包内的setBuffered(WritableByteChannel)写入一个丢弃数据的channel，
+ * 测量的是StdOut.println的完整路径，包括读取writer和加锁
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StdOutBenchmark {
+    @Param({"default", "buffered"})
+    public String mode;
+
+    private int i;
+    private double x;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        if (mode.equals("buffered")) {
+            StdOut.setBuffered(new WritableByteChannel() {
+                @Override
+                public int write(ByteBuffer src) {
+                    int n = src.remaining();
+                    src.position(src.limit());
+                    return n;
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return true;
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        StdOut.setBuffered((WritableByteChannel) null);
+    }
+
+    @Benchmark
+    public void printlnInt() {
+        StdOut.println(i++);
+    }
+
+    @Benchmark
+    public void printlnDouble() {
+        x += 0.125;
+        StdOut.println(x);
+    }
+}
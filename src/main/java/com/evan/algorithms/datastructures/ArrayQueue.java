@@ -0,0 +1,131 @@
+package com.evan.algorithms.datastructures;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * 使用循环数组实现的{@link Queue}，API相同，入队不分配节点，元素在内存中连续存放。
+ * 数组满时容量加倍，元素个数降到容量的1/4时容量减半，和{@link ArrayStack}一样在扩容和缩容之间留有余地。
+ * 迭代器是fail-fast的，迭代期间队列被修改时抛出ConcurrentModificationException
+ */
+public class ArrayQueue<E> implements Iterable<E> {
+    private static final int MIN_CAPACITY = 8;
+
+    private E[] items;
+    private int head; // 队首元素的下标
+    private int num;
+    private int modCount; // 入队和出队的次数，用于检测迭代期间的修改
+
+    @SuppressWarnings("unchecked")
+    public ArrayQueue() {
+        items = (E[]) new Object[MIN_CAPACITY];
+        head = 0;
+        num = 0;
+    }
+
+    public boolean isEmpty() {
+        return num == 0;
+    }
+
+    public int size() {
+        return num;
+    }
+
+    public void enqueue(E item) {
+        if (num == items.length) resize(2 * items.length);
+        int tail = head + num;
+        if (tail >= items.length) tail -= items.length;
+        items[tail] = item;
+        num++;
+        modCount++;
+    }
+
+    public E dequeue() {
+        if (isEmpty()) throw new NoSuchElementException("Queue underflow");
+        E item = items[head];
+        items[head] = null; // 避免游离对象
+        if (++head == items.length) head = 0;
+        num--;
+        modCount++;
+        if (items.length > MIN_CAPACITY && num == items.length / 4) resize(items.length / 2);
+        return item;
+    }
+
+    public E peek() {
+        if (isEmpty()) throw new NoSuchElementException("Queue underflow");
+        return items[head];
+    }
+
+    // 把元素按顺序移到新数组的开头
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        E[] copy = (E[]) new Object[capacity];
+        int firstPart = Math.min(num, items.length - head);
+        System.arraycopy(items, head, copy, 0, firstPart);
+        System.arraycopy(items, 0, copy, firstPart, num - firstPart);
+        items = copy;
+        head = 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new ArrayIterator();
+    }
+
+    private class ArrayIterator implements Iterator<E> {
+        private int i = 0;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return i < num;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!hasNext()) throw new NoSuchElementException();
+            int index = head + i++;
+            if (index >= items.length) index -= items.length;
+            return items[index];
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (E item : this) {
+            sb.append(item);
+            sb.append(" ");
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        ArrayQueue<String> q = new ArrayQueue<>();
+        try (InputStream is = ArrayQueue.class.getResourceAsStream("/datastructures/tobe.txt")) {
+            if (is != null) {
+                Scanner scanner = new Scanner(is, StandardCharsets.UTF_8);
+                if (scanner.hasNextLine()) {
+                    String s = scanner.nextLine();
+                    String[] elements = s.split(" ");
+                    for (String element : elements) {
+                        if (!element.equals("-")) {
+                            q.enqueue(element);
+                        } else if (!q.isEmpty()) {
+                            System.out.print(q.dequeue() + " ");
+                        }
+                    }
+                    System.out.println("(" + q.size() + " left on queue)");
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
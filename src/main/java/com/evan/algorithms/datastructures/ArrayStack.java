@@ -0,0 +1,119 @@
+package com.evan.algorithms.datastructures;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * 使用可变长数组实现的{@link Stack}，API相同，入栈不分配节点，元素在内存中连续存放。
+ * 数组满时容量加倍，元素个数降到容量的1/4时容量减半：扩容和缩容之间留有余地，
+ * 在临界点附近反复入栈出栈不会反复复制数组。迭代器是fail-fast的，迭代期间栈被修改时抛出ConcurrentModificationException
+ */
+public class ArrayStack<E> implements Iterable<E> {
+    private static final int MIN_CAPACITY = 8;
+
+    private E[] items;
+    private int num;
+    private int modCount; // 入栈和出栈的次数，用于检测迭代期间的修改
+
+    @SuppressWarnings("unchecked")
+    public ArrayStack() {
+        items = (E[]) new Object[MIN_CAPACITY];
+        num = 0;
+    }
+
+    public boolean isEmpty() {
+        return num == 0;
+    }
+
+    public int size() {
+        return num;
+    }
+
+    public void push(E item) {
+        if (num == items.length) resize(2 * items.length);
+        items[num++] = item;
+        modCount++;
+    }
+
+    public E pop() {
+        if (isEmpty()) throw new NoSuchElementException("stack underflow");
+        E item = items[--num];
+        items[num] = null; // 避免游离对象
+        modCount++;
+        if (items.length > MIN_CAPACITY && num == items.length / 4) resize(items.length / 2);
+        return item;
+    }
+
+    public E peek() {
+        if (isEmpty()) throw new NoSuchElementException("stack underflow");
+        return items[num - 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        E[] copy = (E[]) new Object[capacity];
+        System.arraycopy(items, 0, copy, 0, num);
+        items = copy;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new ReverseArrayIterator();
+    }
+
+    // 从栈顶到栈底
+    private class ReverseArrayIterator implements Iterator<E> {
+        private int current = num - 1;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return current >= 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!hasNext()) throw new NoSuchElementException();
+            return items[current--];
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (E item : this) {
+            sb.append(item);
+            sb.append(" ");
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        ArrayStack<String> stack = new ArrayStack<>();
+        try (InputStream is = ArrayStack.class.getResourceAsStream("/datastructures/tobe.txt")) {
+            if (is != null) {
+                Scanner scanner = new Scanner(is, StandardCharsets.UTF_8);
+                if (scanner.hasNextLine()) {
+                    String s = scanner.nextLine();
+                    String[] elements = s.split(" ");
+                    for (String element : elements) {
+                        if (!element.equals("-")) {
+                            stack.push(element);
+                        } else if (!stack.isEmpty()) {
+                            System.out.print(stack.pop() + " ");
+                        }
+                    }
+                    System.out.println("(" + stack.size() + " left on stack)");
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
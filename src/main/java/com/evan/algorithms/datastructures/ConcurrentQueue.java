@@ -0,0 +1,239 @@
+package com.evan.algorithms.datastructures;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁的线程安全队列(Michael-Scott)，多个线程可以同时入队和出队。
+ * 链表的第一个节点是哑节点，head指向它，队首元素在head.next中；tail指向最后一个或倒数第二个节点。
+ * 入队用CAS把新节点链接到最后一个节点之后，再尝试把tail后移；出队用CAS把head后移一个节点。
+ * 任何线程在CAS失败时都说明另一个线程取得了进展，线程被挂起也不会阻塞其他线程。
+ * 出队后旧的哑节点的next指向自己，已出队的节点不再链接着后面的节点，
+ * 否则一个进入老年代的已出队节点会让它之后所有的节点都只能在full GC时回收(nepotism)。
+ * 遍历时遇到指向自己的节点，说明它已出队，从head重新开始。
+ * <p>
+ * 队列中不能有null：dequeue和peek在队列为空时返回null，而不是像{@link Queue}那样抛出异常，
+ * 因为在并发时先判断isEmpty再出队并不可靠。size需要遍历链表；迭代器是弱一致的，
+ * 不会抛出ConcurrentModificationException，返回的元素在迭代器创建之后的某个时刻位于队列中
+ */
+public class ConcurrentQueue<E> implements Iterable<E> {
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle NEXT;
+    private static final VarHandle ITEM;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(ConcurrentQueue.class, "head", Node.class);
+            TAIL = lookup.findVarHandle(ConcurrentQueue.class, "tail", Node.class);
+            NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+            ITEM = lookup.findVarHandle(Node.class, "item", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Node<E> head;
+    private volatile Node<E> tail;
+
+    private static class Node<E> {
+        private volatile E item;
+        private volatile Node<E> next;
+
+        Node(E item) {
+            this.item = item;
+        }
+    }
+
+    public ConcurrentQueue() {
+        Node<E> dummy = new Node<>(null);
+        head = dummy;
+        tail = dummy;
+    }
+
+    public boolean isEmpty() {
+        return peek() == null;
+    }
+
+    // x之后的节点；x已出队(next指向自己)时返回当前的队首节点
+    private Node<E> successor(Node<E> x) {
+        Node<E> next = x.next;
+        return next == x ? head.next : next;
+    }
+
+    // 需要遍历队列，并发修改时结果只是近似值
+    public int size() {
+        int num = 0;
+        for (Node<E> x = head.next; x != null; x = successor(x)) {
+            if (x.item != null && ++num == Integer.MAX_VALUE) break;
+        }
+        return num;
+    }
+
+    public void enqueue(E item) {
+        if (item == null) throw new IllegalArgumentException("argument is null");
+        Node<E> node = new Node<>(item);
+        while (true) {
+            Node<E> last = tail;
+            Node<E> next = last.next;
+            if (last != tail) continue;
+            if (next == null) {
+                if (NEXT.compareAndSet(last, null, node)) {
+                    // 失败也没关系，说明其他线程已经帮忙后移了tail
+                    TAIL.compareAndSet(this, last, node);
+                    return;
+                }
+            } else {
+                // tail落后了，帮助正在入队的线程后移tail；
+                // next == last说明last已出队，tail已经越过它，CAS会失败，重新读取tail
+                TAIL.compareAndSet(this, last, next);
+            }
+        }
+    }
+
+    // 队列为空时返回null
+    public E dequeue() {
+        while (true) {
+            Node<E> first = head;
+            Node<E> last = tail;
+            Node<E> next = first.next;
+            // first已出队时next可能指向first自己，重新读取head
+            if (first != head) continue;
+            if (next == null) return null;
+            if (first == last) {
+                // 有线程刚链接了新节点但还没有后移tail，head不能越过tail
+                TAIL.compareAndSet(this, last, next);
+                continue;
+            }
+            E item = next.item;
+            if (HEAD.compareAndSet(this, first, next)) {
+                // next成为新的哑节点，不再引用出队的元素；旧的哑节点指向自己，不再引用后面的节点
+                ITEM.setRelease(next, null);
+                NEXT.setRelease(first, first);
+                return item;
+            }
+        }
+    }
+
+    // 队列为空时返回null
+    public E peek() {
+        while (true) {
+            Node<E> first = head;
+            Node<E> next = first.next;
+            if (next == null) return null;
+            if (next == first) continue; // first已出队
+            E item = next.item;
+            // item为null说明next刚刚出队成为哑节点，重新读取head
+            if (item != null && first == head) return item;
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new WeaklyConsistentIterator();
+    }
+
+    // 沿链表向后遍历，跳过已出队(item为null)的节点；当前节点已出队时它之前的节点也都已出队，
+    // 从head继续遍历不会重复返回元素
+    private class WeaklyConsistentIterator implements Iterator<E> {
+        private Node<E> current = head.next;
+        private E nextItem = advance();
+
+        private E advance() {
+            while (current != null) {
+                E item = current.item;
+                current = successor(current);
+                if (item != null) return item;
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextItem != null;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            E item = nextItem;
+            nextItem = advance();
+            return item;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (E item : this) {
+            sb.append(item);
+            sb.append(" ");
+        }
+        return sb.toString();
+    }
+
+    // 多个生产者和消费者同时使用队列，检查每个元素恰好出队一次，且同一生产者的元素按入队顺序出队
+    public static void main(String[] args) throws InterruptedException {
+        int producers = 4, consumers = 4, perProducer = 500000;
+        ConcurrentQueue<Long> q = new ConcurrentQueue<>();
+        AtomicInteger remaining = new AtomicInteger(producers * perProducer);
+        AtomicLong sum = new AtomicLong();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[producers + consumers];
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p << 32;
+            threads[p] = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < perProducer; i++) {
+                    q.enqueue(base | i);
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads[producers + c] = new Thread(() -> {
+                awaitQuietly(start);
+                long[] last = new long[producers];
+                Arrays.fill(last, -1);
+                while (remaining.get() > 0) {
+                    Long x = q.dequeue();
+                    if (x == null) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    remaining.decrementAndGet();
+                    int p = (int) (x >>> 32);
+                    long i = x & 0xFFFFFFFFL;
+                    if (i <= last[p]) outOfOrder.incrementAndGet();
+                    last[p] = i;
+                    sum.addAndGet(i);
+                }
+            });
+        }
+        for (Thread t : threads) t.start();
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread t : threads) t.join();
+        long elapsed = System.nanoTime() - begin;
+
+        long expected = (long) producers * perProducer * (perProducer - 1) / 2;
+        System.out.println("sum " + (sum.get() == expected ? "ok" : "MISMATCH") + ", out of order: "
+                + outOfOrder.get() + ", left in queue: " + q.size());
+        System.out.printf("%d operations in %d ms%n", 2L * producers * perProducer, elapsed / 1000000);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
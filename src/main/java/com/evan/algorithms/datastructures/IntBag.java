@@ -0,0 +1,114 @@
+package com.evan.algorithms.datastructures;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * 元素为基本类型int的{@link Bag}，使用可扩容的int数组存储，添加元素不分配节点、不装箱。
+ * 迭代顺序与{@link Bag}相同：后添加的元素先被迭代
+ */
+public class IntBag implements Iterable<Integer> {
+    private static final int[] EMPTY = new int[0];
+
+    private int[] items;
+    private int num;
+
+    public IntBag() {
+        items = EMPTY;
+        num = 0;
+    }
+
+    // 预先分配capacity个元素的空间，已知元素个数时可避免扩容
+    public IntBag(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity must be non-negative");
+        items = capacity == 0 ? EMPTY : new int[capacity];
+        num = 0;
+    }
+
+    public IntBag(IntBag other) {
+        items = other.num == 0 ? EMPTY : Arrays.copyOf(other.items, other.num);
+        num = other.num;
+    }
+
+    public boolean isEmpty() {
+        return num == 0;
+    }
+
+    public int size() {
+        return num;
+    }
+
+    public void add(int item) {
+        if (num == items.length) {
+            items = Arrays.copyOf(items, Math.max(2, items.length * 2));
+        }
+        items[num++] = item;
+    }
+
+    // 按迭代顺序返回第i个元素
+    public int get(int i) {
+        if (i < 0 || i >= num) throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (num - 1));
+        return items[num - 1 - i];
+    }
+
+    public void forEachInt(IntConsumer action) {
+        for (int i = num - 1; i >= 0; i--) {
+            action.accept(items[i]);
+        }
+    }
+
+    public IntIterator intIterator() {
+        return new ArrayIntIterator();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        IntIterator it = intIterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                return it.next();
+            }
+        };
+    }
+
+    private class ArrayIntIterator implements IntIterator {
+        private int current = num - 1;
+
+        @Override
+        public boolean hasNext() {
+            return current >= 0;
+        }
+
+        @Override
+        public int next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return items[current--];
+        }
+    }
+
+    public static void main(String[] args) {
+        IntBag bag = new IntBag();
+        for (int i = 1; i <= 6; i++) {
+            bag.add(i * 10);
+        }
+        System.out.println("size of bag: " + bag.size());
+        for (IntIterator it = bag.intIterator(); it.hasNext(); ) {
+            System.out.print(it.next() + " ");
+        }
+        System.out.println();
+        bag.forEachInt(x -> System.out.print(x + " "));
+        System.out.println();
+        for (int i = 0; i < bag.size(); i++) {
+            System.out.print(bag.get(i) + " ");
+        }
+        System.out.println();
+    }
+}
@@ -0,0 +1,9 @@
+package com.evan.algorithms.datastructures;
+
+// 基本类型int的迭代器，迭代过程中不装箱
+public interface IntIterator {
+
+    boolean hasNext();
+
+    int next();
+}
@@ -0,0 +1,129 @@
+package com.evan.algorithms.datastructures;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 元素为基本类型int的{@link Queue}，使用循环数组(环形缓冲区)存储，入队不分配节点、不装箱。
+ * 数组长度总是2的幂，下标用位与取模；数组满时容量加倍，之后不再缩小，重复使用时不再分配内存
+ */
+public class IntQueue implements Iterable<Integer> {
+    private int[] items;
+    private int head; // 队首元素的下标
+    private int num;
+
+    public IntQueue() {
+        this(8);
+    }
+
+    // 预先分配至少capacity个元素的空间，已知元素个数的上限时可避免扩容
+    public IntQueue(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity must be non-negative");
+        if (capacity > 1 << 30) throw new IllegalArgumentException("capacity too large: " + capacity);
+        items = new int[Math.max(8, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1)];
+        head = 0;
+        num = 0;
+    }
+
+    public boolean isEmpty() {
+        return num == 0;
+    }
+
+    public int size() {
+        return num;
+    }
+
+    public void enqueue(int item) {
+        if (num == items.length) {
+            resize();
+        }
+        items[(head + num) & (items.length - 1)] = item;
+        num++;
+    }
+
+    public int dequeue() {
+        if (isEmpty()) throw new NoSuchElementException("Queue underflow");
+        int item = items[head];
+        head = (head + 1) & (items.length - 1);
+        num--;
+        return item;
+    }
+
+    public int peek() {
+        if (isEmpty()) throw new NoSuchElementException("Queue underflow");
+        return items[head];
+    }
+
+    // 清空队列，保留已分配的数组
+    public void clear() {
+        head = 0;
+        num = 0;
+    }
+
+    // 容量加倍，同时把元素按顺序移到新数组的开头
+    private void resize() {
+        if (items.length == 1 << 30) throw new IllegalStateException("queue is full");
+        int[] copy = new int[items.length * 2];
+        int firstPart = Math.min(num, items.length - head);
+        System.arraycopy(items, head, copy, 0, firstPart);
+        System.arraycopy(items, 0, copy, firstPart, num - firstPart);
+        items = copy;
+        head = 0;
+    }
+
+    public IntIterator intIterator() {
+        return new IntIterator() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < num;
+            }
+
+            @Override
+            public int next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return items[(head + i++) & (items.length - 1)];
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        IntIterator it = intIterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                return it.next();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (IntIterator it = intIterator(); it.hasNext(); ) {
+            sb.append(it.next());
+            sb.append(" ");
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        IntQueue q = new IntQueue(4);
+        // 队首不断后移，越过数组末尾后回到开头
+        for (int i = 1; i <= 20; i++) {
+            q.enqueue(i);
+            if (i % 3 == 0) {
+                System.out.print(q.dequeue() + " ");
+            }
+        }
+        System.out.println("(" + q.size() + " left on queue)");
+        System.out.println(q);
+    }
+}
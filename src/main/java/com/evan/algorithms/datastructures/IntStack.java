@@ -0,0 +1,113 @@
+package com.evan.algorithms.datastructures;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 元素为基本类型int的{@link Stack}，使用可扩容的int数组存储，入栈不分配节点、不装箱，
+ * 扩容后数组不再缩小，重复使用时不再分配内存。迭代顺序与{@link Stack}相同：从栈顶到栈底
+ */
+public class IntStack implements Iterable<Integer> {
+    private static final int[] EMPTY = new int[0];
+
+    private int[] items;
+    private int num;
+
+    public IntStack() {
+        items = EMPTY;
+        num = 0;
+    }
+
+    // 预先分配capacity个元素的空间，已知元素个数的上限时可避免扩容
+    public IntStack(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity must be non-negative");
+        items = capacity == 0 ? EMPTY : new int[capacity];
+        num = 0;
+    }
+
+    public boolean isEmpty() {
+        return num == 0;
+    }
+
+    public int size() {
+        return num;
+    }
+
+    public void push(int item) {
+        if (num == items.length) {
+            items = Arrays.copyOf(items, Math.max(8, items.length * 2));
+        }
+        items[num++] = item;
+    }
+
+    public int pop() {
+        if (isEmpty()) throw new NoSuchElementException("stack underflow");
+        return items[--num];
+    }
+
+    public int peek() {
+        if (isEmpty()) throw new NoSuchElementException("stack underflow");
+        return items[num - 1];
+    }
+
+    // 清空栈，保留已分配的数组
+    public void clear() {
+        num = 0;
+    }
+
+    public IntIterator intIterator() {
+        return new IntIterator() {
+            private int current = num - 1;
+
+            @Override
+            public boolean hasNext() {
+                return current >= 0;
+            }
+
+            @Override
+            public int next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return items[current--];
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        IntIterator it = intIterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                return it.next();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (IntIterator it = intIterator(); it.hasNext(); ) {
+            sb.append(it.next());
+            sb.append(" ");
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        IntStack stack = new IntStack();
+        for (int i = 1; i <= 10; i++) {
+            stack.push(i);
+        }
+        System.out.println(stack + "(" + stack.size() + " on stack)");
+        while (stack.size() > 3) {
+            System.out.print(stack.pop() + " ");
+        }
+        System.out.println("(" + stack.size() + " left on stack, top " + stack.peek() + ")");
+    }
+}
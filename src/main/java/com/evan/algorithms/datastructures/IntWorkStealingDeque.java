@@ -0,0 +1,156 @@
+package com.evan.algorithms.datastructures;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 工作窃取的int双端队列(Chase-Lev)，用于并行任务调度。
+ * 只有一个所有者线程，在底部push和pop，像栈一样后进先出；其他线程可以同时从顶部steal，先进先出。
+ * 元素保存在大小为2的幂的循环数组中，[top, bottom)是队列中的元素。
+ * 所有者只写bottom，窃取者用CAS增大top认领元素，只有队列中剩最后一个元素时所有者才需要和窃取者竞争CAS；
+ * 数组满时所有者换成两倍大小的新数组，窃取者仍可以从旧数组中读取，CAS成功说明读到的元素有效。
+ * 队列为空时pop和steal返回{@link #EMPTY}，因此队列中不能有EMPTY
+ */
+public class IntWorkStealingDeque {
+    public static final int EMPTY = Integer.MIN_VALUE;
+
+    private static final VarHandle TOP;
+    private static final VarHandle BOTTOM;
+    private static final VarHandle ARRAY;
+    private static final int INIT_CAPACITY = 64;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TOP = lookup.findVarHandle(IntWorkStealingDeque.class, "top", long.class);
+            BOTTOM = lookup.findVarHandle(IntWorkStealingDeque.class, "bottom", long.class);
+            ARRAY = lookup.findVarHandle(IntWorkStealingDeque.class, "array", int[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long top; // 下一个被窃取的元素
+    private volatile long bottom; // 下一个push的位置
+    private volatile int[] array;
+
+    public IntWorkStealingDeque() {
+        array = new int[INIT_CAPACITY];
+    }
+
+    // 并发修改时只是近似值
+    public int size() {
+        long size = (long) BOTTOM.getOpaque(this) - (long) TOP.getOpaque(this);
+        return (int) Math.max(0, size);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // 只能由所有者调用
+    public void push(int x) {
+        if (x == EMPTY) throw new IllegalArgumentException("argument is EMPTY");
+        long b = (long) BOTTOM.getOpaque(this);
+        long t = (long) TOP.getAcquire(this);
+        int[] a = (int[]) ARRAY.getOpaque(this);
+        if (b - t > a.length - 1) {
+            a = grow(a, t, b);
+        }
+        a[(int) b & (a.length - 1)] = x;
+        // 元素写入后才发布新的bottom
+        BOTTOM.setRelease(this, b + 1);
+    }
+
+    private int[] grow(int[] a, long t, long b) {
+        int[] bigger = new int[2 * a.length];
+        for (long i = t; i < b; i++) {
+            bigger[(int) i & (bigger.length - 1)] = a[(int) i & (a.length - 1)];
+        }
+        ARRAY.setRelease(this, bigger);
+        return bigger;
+    }
+
+    // 只能由所有者调用，取出最后push的元素，队列为空时返回EMPTY
+    public int pop() {
+        long b = (long) BOTTOM.getOpaque(this) - 1;
+        int[] a = (int[]) ARRAY.getOpaque(this);
+        // 先减小bottom再读取top(volatile的写和读不会重排序)，与同时进行的steal不会取走同一个元素
+        bottom = b;
+        long t = top;
+        if (t > b) {
+            // 队列已空
+            BOTTOM.setOpaque(this, b + 1);
+            return EMPTY;
+        }
+        int x = a[(int) b & (a.length - 1)];
+        if (t == b) {
+            // 最后一个元素，与窃取者竞争
+            if (!TOP.compareAndSet(this, t, t + 1)) x = EMPTY;
+            BOTTOM.setOpaque(this, b + 1);
+        }
+        return x;
+    }
+
+    // 任何线程都可以调用，取出最早push的元素，队列为空时返回EMPTY。
+    // CAS失败说明其他线程取走了元素，此时重试，因此只在队列为空时才返回EMPTY
+    public int steal() {
+        while (true) {
+            long t = top;
+            long b = bottom;
+            if (t >= b) return EMPTY;
+            int[] a = array;
+            int x = a[(int) t & (a.length - 1)];
+            if (TOP.compareAndSet(this, t, t + 1)) return x;
+        }
+    }
+
+    // 所有者push和pop的同时，多个窃取者steal，检查每个元素恰好被取出一次
+    public static void main(String[] args) throws InterruptedException {
+        int n = 2000000, thieves = 3;
+        IntWorkStealingDeque deque = new IntWorkStealingDeque();
+        AtomicIntegerArray taken = new AtomicIntegerArray(n);
+        AtomicInteger stolen = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(n);
+        Thread[] threads = new Thread[thieves];
+        for (int i = 0; i < thieves; i++) {
+            threads[i] = new Thread(() -> {
+                while (remaining.get() > 0) {
+                    int x = deque.steal();
+                    if (x == EMPTY) {
+                        Thread.yield();
+                        continue;
+                    }
+                    taken.incrementAndGet(x);
+                    stolen.incrementAndGet();
+                    remaining.decrementAndGet();
+                }
+            });
+            threads[i].start();
+        }
+
+        // 所有者每次push三个元素再pop一个，队列持续增长，最后全部pop
+        for (int x = 0; x < n; x++) {
+            deque.push(x);
+            if (x % 3 == 2) {
+                int y = deque.pop();
+                if (y != EMPTY) {
+                    taken.incrementAndGet(y);
+                    remaining.decrementAndGet();
+                }
+            }
+        }
+        for (int y = deque.pop(); y != EMPTY; y = deque.pop()) {
+            taken.incrementAndGet(y);
+            remaining.decrementAndGet();
+        }
+        for (Thread t : threads) t.join();
+
+        for (int x = 0; x < n; x++) {
+            if (taken.get(x) != 1) throw new IllegalStateException(x + " taken " + taken.get(x) + " times");
+        }
+        System.out.printf("%d elements taken exactly once, %d stolen%n", n, stolen.get());
+    }
+}
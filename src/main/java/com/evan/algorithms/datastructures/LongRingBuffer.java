@@ -0,0 +1,266 @@
+package com.evan.algorithms.datastructures;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 有界的多生产者多消费者环形缓冲区，元素是long，容量固定且在构造时分配，之后的读写不分配对象。
+ * 生产者和消费者各有一个序号游标，入队(出队)先在游标上领取序号，序号s对应槽位s & (capacity - 1)。
+ * 每个槽位带有一个序号标记：标记为s时槽位空闲，可以写入第s个元素；写入后发布为s + 1，消费者可以读取；
+ * 读取后标记改为s + capacity，留给下一圈。一次领取n个连续序号，可以批量写入和读取，
+ * 游标上的原子操作只有一次。等待(缓冲区满或空)时按{@link WaitStrategy}自旋、让出CPU或短暂休眠。
+ * <p>
+ * 一条边v-w可以用{@link #pack(int, int)}打包为一个元素
+ */
+public class LongRingBuffer {
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int PAD = 16; // 两个游标相隔128字节，避免位于同一缓存行
+    private static final int PUT = PAD;
+    private static final int TAKE = 2 * PAD;
+    private static final long PARK_NANOS = 10000;
+
+    private final int capacity;
+    private final int mask;
+    // slots[2i]是第i个槽位的序号标记，slots[2i + 1]是其中的元素
+    private final long[] slots;
+    private final long[] cursors = new long[3 * PAD];
+    private final WaitStrategy waitStrategy;
+
+    // 等待时每次检查条件失败后调用，attempt为本次等待中已经失败的次数
+    public interface WaitStrategy {
+        void idle(int attempt);
+    }
+
+    // 一直自旋，延迟最低，但等待的线程独占CPU，线程数不能多于CPU数
+    public static final WaitStrategy SPIN = attempt -> Thread.onSpinWait();
+
+    // 自旋一段时间后让出CPU
+    public static final WaitStrategy YIELD = attempt -> {
+        if (attempt < 100) Thread.onSpinWait();
+        else Thread.yield();
+    };
+
+    // 自旋、让出CPU，之后每次休眠约PARK_NANOS纳秒，长时间等待时几乎不占用CPU
+    public static final WaitStrategy PARK = attempt -> {
+        if (attempt < 100) Thread.onSpinWait();
+        else if (attempt < 200) Thread.yield();
+        else LockSupport.parkNanos(PARK_NANOS);
+    };
+
+    // capacity向上取为2的幂且至少为2(只有一个槽位时，发布后的标记s + 1与下一圈空闲的标记无法区分)，使用PARK
+    public LongRingBuffer(int capacity) {
+        this(capacity, PARK);
+    }
+
+    public LongRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (capacity < 1 || capacity > 1 << 29) throw new IllegalArgumentException("capacity must be between 1 and 2^29");
+        if (waitStrategy == null) throw new IllegalArgumentException("argument is null");
+        this.capacity = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.waitStrategy = waitStrategy;
+        slots = new long[2 * this.capacity];
+        for (int i = 0; i < this.capacity; i++) {
+            slots[2 * i] = i;
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // 并发修改时只是近似值
+    public int size() {
+        long size = (long) SLOT.getVolatile(cursors, PUT) - (long) SLOT.getVolatile(cursors, TAKE);
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private long stamp(long sequence) {
+        return (long) SLOT.getAcquire(slots, 2 * (int) (sequence & mask));
+    }
+
+    // 等待槽位的标记变为expected
+    private void awaitStamp(long sequence, long expected) {
+        for (int attempt = 0; stamp(sequence) != expected; attempt++) {
+            waitStrategy.idle(attempt);
+        }
+    }
+
+    /***************************************************************************
+     *  生产者
+     ***************************************************************************/
+
+    // 领取n个连续的序号，等待它们的槽位都空闲后返回第一个序号。
+    // 之后用set写入每个序号的元素，再用publish发布，发布之前消费者会一直等待这些元素
+    public long claim(int n) {
+        if (n < 1 || n > capacity) throw new IllegalArgumentException("n must be between 1 and capacity");
+        long first = (long) SLOT.getAndAdd(cursors, PUT, (long) n);
+        for (long s = first; s < first + n; s++) {
+            awaitStamp(s, s);
+        }
+        return first;
+    }
+
+    // 不等待：n个槽位都空闲时领取并返回第一个序号，否则返回-1
+    public long tryClaim(int n) {
+        if (n < 1 || n > capacity) throw new IllegalArgumentException("n must be between 1 and capacity");
+        while (true) {
+            long first = (long) SLOT.getVolatile(cursors, PUT);
+            // 标记小于s说明槽位中还有上一圈的元素；大于s说明游标已被其他生产者移动。
+            // 空闲的槽位只能被领取了它的生产者修改，游标未移动时这n个槽位仍然空闲
+            boolean free = true;
+            for (long s = first; s < first + n && free; s++) {
+                long stamp = stamp(s);
+                if (stamp < s && (long) SLOT.getVolatile(cursors, PUT) == first) return -1;
+                free = stamp == s;
+            }
+            if (free && SLOT.compareAndSet(cursors, PUT, first, first + n)) return first;
+        }
+    }
+
+    // 写入已领取的序号sequence的元素
+    public void set(long sequence, long value) {
+        slots[2 * (int) (sequence & mask) + 1] = value;
+    }
+
+    // 发布从first开始的n个序号，它们的元素都已写入
+    public void publish(long first, int n) {
+        for (long s = first; s < first + n; s++) {
+            SLOT.setRelease(slots, 2 * (int) (s & mask), s + 1);
+        }
+    }
+
+    // 缓冲区满时等待
+    public void put(long value) {
+        long s = claim(1);
+        set(s, value);
+        publish(s, 1);
+    }
+
+    // 缓冲区满时返回false
+    public boolean offer(long value) {
+        long s = tryClaim(1);
+        if (s < 0) return false;
+        set(s, value);
+        publish(s, 1);
+        return true;
+    }
+
+    // 批量写入a[from, from + n)，每次最多领取capacity个序号
+    public void put(long[] a, int from, int n) {
+        int end = from + n;
+        while (from < end) {
+            int k = Math.min(end - from, capacity);
+            long first = claim(k);
+            for (int i = 0; i < k; i++) {
+                set(first + i, a[from + i]);
+            }
+            publish(first, k);
+            from += k;
+        }
+    }
+
+    /***************************************************************************
+     *  消费者
+     ***************************************************************************/
+
+    // 缓冲区空时等待
+    public long take() {
+        long s = (long) SLOT.getAndAdd(cursors, TAKE, 1L);
+        awaitStamp(s, s + 1);
+        return release(s);
+    }
+
+    // 读取序号s的元素，并把槽位留给下一圈
+    private long release(long s) {
+        int i = 2 * (int) (s & mask);
+        long value = slots[i + 1];
+        SLOT.setRelease(slots, i, s + capacity);
+        return value;
+    }
+
+    // 不等待：取出已发布的至多max个连续元素写入a[from, ...)，返回取出的个数，缓冲区空时返回0
+    public int drain(long[] a, int from, int max) {
+        while (true) {
+            long first = (long) SLOT.getVolatile(cursors, TAKE);
+            int k = 0;
+            while (k < max && stamp(first + k) == first + k + 1) k++;
+            if (k == 0) {
+                // 标记等于first + 1之外的值时槽位尚未发布，或已被其他消费者取走(游标已移动)
+                if ((long) SLOT.getVolatile(cursors, TAKE) == first) return 0;
+                continue;
+            }
+            // 已发布的槽位只能被领取了它的消费者修改，游标未移动时这k个元素仍然可用
+            if (SLOT.compareAndSet(cursors, TAKE, first, first + k)) {
+                for (int i = 0; i < k; i++) {
+                    a[from + i] = release(first + i);
+                }
+                return k;
+            }
+        }
+    }
+
+    // 与drain相同，但至少取出一个元素，缓冲区空时等待
+    public int take(long[] a, int from, int max) {
+        if (max < 1) throw new IllegalArgumentException("max must be positive");
+        for (int attempt = 0; ; attempt++) {
+            int k = drain(a, from, max);
+            if (k > 0) return k;
+            waitStrategy.idle(attempt);
+        }
+    }
+
+    // 把边v-w打包为一个long，v在高32位
+    public static long pack(int v, int w) {
+        return (long) v << 32 | (w & 0xFFFFFFFFL);
+    }
+
+    public static int first(long edge) {
+        return (int) (edge >>> 32);
+    }
+
+    public static int second(long edge) {
+        return (int) edge;
+    }
+
+    // 多个生产者生成随机边并批量写入，一个消费者批量取出
+    public static void main(String[] args) throws InterruptedException {
+        int vertexCount = 1000000, producers = 2, perProducer = 5000000, batch = 256;
+        LongRingBuffer buffer = new LongRingBuffer(1 << 16);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            SplittableRandom random = new SplittableRandom(p);
+            threads[p] = new Thread(() -> {
+                long[] edges = new long[batch];
+                for (int done = 0; done < perProducer; done += batch) {
+                    int n = Math.min(batch, perProducer - done);
+                    for (int i = 0; i < n; i++) {
+                        edges[i] = pack(random.nextInt(vertexCount), random.nextInt(vertexCount));
+                    }
+                    buffer.put(edges, 0, n);
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Thread t : threads) t.start();
+        long[] edges = new long[batch];
+        long total = (long) producers * perProducer, checksum = 0;
+        for (long taken = 0; taken < total; ) {
+            int n = buffer.take(edges, 0, batch);
+            for (int i = 0; i < n; i++) {
+                checksum += first(edges[i]) + second(edges[i]);
+            }
+            taken += n;
+        }
+        for (Thread t : threads) t.join();
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%d edges in %d ms (%.1f million/s), checksum %d%n",
+                total, elapsed / 1000000, total * 1000.0 / elapsed, checksum);
+    }
+}
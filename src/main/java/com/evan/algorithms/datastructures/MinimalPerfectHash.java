@@ -0,0 +1,267 @@
+package com.evan.algorithms.datastructures;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 静态键集合上的最小完美哈希函数(PTHash风格的CHD)，把n个互不相同的64位哈希值一一映射到[0, n)。
+ * 键先按哈希值分到平均含{@code BUCKET_SIZE}个键的桶中，从最大的桶开始，
+ * 为每个桶找一个pilot，使桶内所有键的位置mix(h ^ mix(pilot)) mod m都还未被占用。
+ * pilot大多很小，用一个字节保存，约1.6 bit/键；m = n / LOAD，再用带rank的位图把占用的位置压缩到[0, n)，
+ * 约1.4 bit/键，合计约3 bit/键。查询只访问pilot数组和位图各一次，
+ * 对不在集合中的键会返回[0, n)中的任意值，调用者需要自行校验
+ */
+public class MinimalPerfectHash {
+    private static final int BUCKET_SIZE = 5;
+    private static final double LOAD = 0.8; // n / m
+    private static final int ESCAPE = 0xFF; // pilot不小于ESCAPE时保存在overflow中
+    private static final int MAX_PILOT = 1 << 24;
+    private static final int BLOCK_BITS = 7 * 64;
+    private static final double DENSE_BUCKETS = 0.3;
+    private static final long DENSE_THRESHOLD = (long) (0.6 * (1L << 32));
+
+    private final int n;
+    private final int tableSize; // m
+    private final long seed;
+    private final byte[] pilots; // 每个桶的pilot
+    private final int[] overflowBuckets; // pilot较大的桶，升序
+    private final int[] overflowPilots;
+    // 被占用位置的位图，每8个long为一块：第一个long是之前各块中被占用位置的个数，后7个long是448个位置的位图。
+    // 位置p最终映射到rank(p)，即p之前被占用的位置数，计算rank只需访问一个缓存行
+    private final long[] rank;
+
+    // hashes中的值必须互不相同，否则抛出IllegalArgumentException
+    public MinimalPerfectHash(long[] hashes) {
+        n = hashes.length;
+        tableSize = n == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE - 8, (long) Math.ceil(n / LOAD));
+        int bucketCount = Math.max(1, (n + BUCKET_SIZE - 1) / BUCKET_SIZE);
+
+        // 按桶对哈希值做计数排序
+        int[] start = new int[bucketCount + 1];
+        for (long h : hashes) {
+            start[bucket(h, bucketCount) + 1]++;
+        }
+        for (int b = 0; b < bucketCount; b++) {
+            start[b + 1] += start[b];
+        }
+        long[] sorted = new long[n];
+        int[] next = Arrays.copyOf(start, bucketCount);
+        for (long h : hashes) {
+            sorted[next[bucket(h, bucketCount)]++] = h;
+        }
+
+        // 按桶的大小从大到小排序
+        int maxSize = 0;
+        for (int b = 0; b < bucketCount; b++) {
+            maxSize = Math.max(maxSize, start[b + 1] - start[b]);
+        }
+        int[] bySize = new int[maxSize + 2];
+        for (int b = 0; b < bucketCount; b++) {
+            bySize[maxSize - (start[b + 1] - start[b]) + 1]++;
+        }
+        for (int k = 0; k <= maxSize; k++) {
+            bySize[k + 1] += bySize[k];
+        }
+        int[] order = new int[bucketCount];
+        for (int b = 0; b < bucketCount; b++) {
+            order[bySize[maxSize - (start[b + 1] - start[b])]++] = b;
+        }
+
+        // 种子用于在极少数找不到pilot的情况下重新构建
+        long s = 0;
+        int[] pilotOf;
+        boolean[] taken;
+        while (true) {
+            pilotOf = new int[bucketCount];
+            taken = new boolean[tableSize];
+            if (place(sorted, start, order, s, pilotOf, taken)) break;
+            s++;
+        }
+        seed = s;
+
+        pilots = new byte[bucketCount];
+        int overflowCount = 0;
+        for (int b = 0; b < bucketCount; b++) {
+            if (pilotOf[b] >= ESCAPE) overflowCount++;
+        }
+        overflowBuckets = new int[overflowCount];
+        overflowPilots = new int[overflowCount];
+        for (int b = 0, i = 0; b < bucketCount; b++) {
+            if (pilotOf[b] >= ESCAPE) {
+                pilots[b] = (byte) ESCAPE;
+                overflowBuckets[i] = b;
+                overflowPilots[i++] = pilotOf[b];
+            } else {
+                pilots[b] = (byte) pilotOf[b];
+            }
+        }
+
+        rank = new long[8 * ((tableSize + BLOCK_BITS - 1) / BLOCK_BITS)];
+        long count = 0;
+        for (int block = 0; 8 * block < rank.length; block++) {
+            rank[8 * block] = count;
+            for (int k = 0; k < BLOCK_BITS; k++) {
+                int p = block * BLOCK_BITS + k;
+                if (p < tableSize && taken[p]) {
+                    rank[8 * block + 1 + k / 64] |= 1L << k;
+                    count++;
+                }
+            }
+        }
+    }
+
+    // 依次为每个桶找pilot，失败时返回false
+    private boolean place(long[] sorted, int[] start, int[] order, long seed, int[] pilotOf, boolean[] taken) {
+        int[] positions = new int[BUCKET_SIZE * 16];
+        for (int b : order) {
+            int size = start[b + 1] - start[b];
+            if (size == 0) break;
+            if (positions.length < size) positions = new int[size];
+            int pilot = 0;
+            search:
+            for (; ; pilot++) {
+                if (pilot == MAX_PILOT) return false;
+                long mixedPilot = mix(pilot ^ seed);
+                for (int i = 0; i < size; i++) {
+                    int p = position(sorted[start[b] + i], mixedPilot, tableSize);
+                    if (taken[p]) continue search;
+                    for (int j = 0; j < i; j++) {
+                        if (positions[j] == p) {
+                            if (sorted[start[b] + i] == sorted[start[b] + j])
+                                throw new IllegalArgumentException("duplicate hash value " + sorted[start[b] + i]);
+                            continue search;
+                        }
+                    }
+                    positions[i] = p;
+                }
+                break;
+            }
+            pilotOf[b] = pilot;
+            for (int i = 0; i < size; i++) {
+                taken[positions[i]] = true;
+            }
+        }
+        return true;
+    }
+
+    private MinimalPerfectHash(int n, int tableSize, long seed, byte[] pilots,
+                               int[] overflowBuckets, int[] overflowPilots, long[] rank) {
+        this.n = n;
+        this.tableSize = tableSize;
+        this.seed = seed;
+        this.pilots = pilots;
+        this.overflowBuckets = overflowBuckets;
+        this.overflowPilots = overflowPilots;
+        this.rank = rank;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // 返回hash在[0, n)中的位置，构建时的哈希值各不相同
+    public int slot(long hash) {
+        if (n == 0) throw new IllegalStateException("no keys");
+        int b = bucket(hash, pilots.length);
+        int pilot = pilots[b] & 0xFF;
+        if (pilot == ESCAPE) pilot = overflowPilots[Arrays.binarySearch(overflowBuckets, b)];
+        int p = position(hash, mix(pilot ^ seed), tableSize);
+        int block = p / BLOCK_BITS;
+        int k = p - block * BLOCK_BITS;
+        int i = 8 * block + 1;
+        long r = rank[i - 1];
+        for (int w = 0; w < k / 64; w++) {
+            r += Long.bitCount(rank[i + w]);
+        }
+        r += Long.bitCount(rank[i + k / 64] & ((1L << k) - 1));
+        // 不在集合中的键可能落在最后一个被占用的位置之后
+        return (int) Math.min(r, n - 1);
+    }
+
+    // 60%的键落在前30%的桶中，这些大桶最先放置，之后剩下的多是容易放置的小桶
+    private static int bucket(long hash, int bucketCount) {
+        int denseCount = (int) (bucketCount * DENSE_BUCKETS);
+        long low = hash & 0xFFFFFFFFL;
+        if ((hash >>> 32) < DENSE_THRESHOLD) return (int) ((low * denseCount) >>> 32);
+        return denseCount + (int) ((low * (bucketCount - denseCount)) >>> 32);
+    }
+
+    private static int position(long hash, long mixedPilot, int tableSize) {
+        long h = mix(hash ^ mixedPilot);
+        return (int) (((h >>> 32) * tableSize) >>> 32);
+    }
+
+    // SplitMix64的finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // 平均每个键占用的bit数
+    public double bitsPerKey() {
+        if (n == 0) return 0;
+        long bits = 8L * pilots.length + 64L * overflowBuckets.length + 64L * rank.length;
+        return (double) bits / n;
+    }
+
+    // 序列化后的字节数
+    public int serializedSize() {
+        return 24 + pilots.length + 8 * overflowBuckets.length + 8 * rank.length;
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(n).putInt(tableSize).putLong(seed);
+        buffer.putInt(overflowBuckets.length).putInt(pilots.length);
+        buffer.put(pilots);
+        for (int i = 0; i < overflowBuckets.length; i++) {
+            buffer.putInt(overflowBuckets[i]).putInt(overflowPilots[i]);
+        }
+        for (long word : rank) {
+            buffer.putLong(word);
+        }
+    }
+
+    public static MinimalPerfectHash readFrom(ByteBuffer buffer) {
+        int n = buffer.getInt();
+        int tableSize = buffer.getInt();
+        long seed = buffer.getLong();
+        int overflowCount = buffer.getInt();
+        int bucketCount = buffer.getInt();
+        if (n < 0 || tableSize < n || overflowCount < 0 || bucketCount < 1)
+            throw new IllegalArgumentException("invalid perfect hash data");
+        byte[] pilots = new byte[bucketCount];
+        buffer.get(pilots);
+        int[] overflowBuckets = new int[overflowCount];
+        int[] overflowPilots = new int[overflowCount];
+        for (int i = 0; i < overflowCount; i++) {
+            overflowBuckets[i] = buffer.getInt();
+            overflowPilots[i] = buffer.getInt();
+        }
+        long[] rank = new long[8 * ((tableSize + BLOCK_BITS - 1) / BLOCK_BITS)];
+        for (int i = 0; i < rank.length; i++) {
+            rank[i] = buffer.getLong();
+        }
+        return new MinimalPerfectHash(n, tableSize, seed, pilots, overflowBuckets, overflowPilots, rank);
+    }
+
+    public static void main(String[] args) {
+        int n = 1000000;
+        long[] hashes = new long[n];
+        for (int i = 0; i < n; i++) {
+            hashes[i] = mix(i + 1);
+        }
+        long start = System.nanoTime();
+        MinimalPerfectHash mph = new MinimalPerfectHash(hashes);
+        long elapsed = System.nanoTime() - start;
+
+        boolean[] used = new boolean[n];
+        for (long h : hashes) {
+            int slot = mph.slot(h);
+            if (used[slot]) throw new IllegalStateException("collision at " + slot);
+            used[slot] = true;
+        }
+        System.out.printf("%d keys in %d ms, %.2f bits/key, %d overflow pilots\n",
+                n, elapsed / 1000000, mph.bitsPerKey(), mph.overflowBuckets.length);
+    }
+}
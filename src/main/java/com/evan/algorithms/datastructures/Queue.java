@@ -7,21 +7,38 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
 
-// 先进先出
+/**
+ * 先进先出。
+ * 可以选择保留出队的节点(空闲链表)，入队时重用，减少大量入队出队时的节点分配。
+ * 迭代器不受入队出队的影响：已出队的节点仍然链接着后面的节点；
+ * 迭代器要访问的节点出队后被重用时，迭代从当前的队首继续，不会重复返回元素
+ */
 public class Queue<E> implements Iterable<E> {
     private Node<E> first;
     private Node<E> last;
     private int num;
+    private final int freeListCapacity; // 最多保留的空闲节点数，为0时不重用节点
+    private Node<E> free; // 空闲链表
+    private int freeCount;
+    private int enqueued; // 入队的次数，作为节点的序号
 
     public Queue() {
+        this(0);
+    }
+
+    // 出队的节点最多保留freeListCapacity个，入队时重用
+    public Queue(int freeListCapacity) {
+        if (freeListCapacity < 0) throw new IllegalArgumentException("capacity must be non-negative");
         first = null;
         last = null;
         num = 0;
+        this.freeListCapacity = freeListCapacity;
     }
 
     private static class Node<E> {
         private E item;
         private Node<E> next;
+        private int seq; // 入队的序号，后一个节点的序号总是加1，迭代器据此发现要访问的节点已被重用
     }
 
     public boolean isEmpty() {
@@ -34,8 +51,15 @@ public class Queue<E> implements Iterable<E> {
 
     public void enqueue(E item) {
         Node<E> oldLast = last;
-        last = new Node<>();
+        if (free != null) {
+            last = free;
+            free = free.next;
+            freeCount--;
+        } else {
+            last = new Node<>();
+        }
         last.item = item;
+        last.seq = enqueued++;
         last.next = null;
         if (isEmpty())
             first = last;
@@ -47,9 +71,17 @@ public class Queue<E> implements Iterable<E> {
     public E dequeue() {
         if (isEmpty())
             throw new NoSuchElementException("Queue underflow");
-        E item = first.item;
-        first = first.next;
+        Node<E> oldFirst = first;
+        E item = oldFirst.item;
+        first = oldFirst.next;
         num--;
+        if (freeCount < freeListCapacity) {
+            oldFirst.item = null;
+            oldFirst.seq = ~oldFirst.seq; // 与原序号不同，迭代器不会再访问这个节点
+            oldFirst.next = free;
+            free = oldFirst;
+            freeCount++;
+        }
         return item;
     }
 
@@ -61,18 +93,24 @@ public class Queue<E> implements Iterable<E> {
 
     @Override
     public Iterator<E> iterator() {
-        return new LinkedIterator<>(first);
+        return new LinkedIterator();
     }
 
-    private static class LinkedIterator<E> implements Iterator<E> {
-        private Node<E> current;
+    private class LinkedIterator implements Iterator<E> {
+        private Node<E> current = first;
+        private int expectedSeq = first == null ? 0 : first.seq;
 
-        LinkedIterator(Node<E> first) {
-            current = first;
+        // current已被重用时从队首继续，序号在expectedSeq之前的元素都已出队
+        private void revalidate() {
+            if (current != null && current.seq != expectedSeq) {
+                current = first;
+                if (first != null) expectedSeq = first.seq;
+            }
         }
 
         @Override
         public boolean hasNext() {
+            revalidate();
             return current != null;
         }
 
@@ -82,6 +120,7 @@ public class Queue<E> implements Iterable<E> {
                 throw new NoSuchElementException();
             E item = current.item;
             current = current.next;
+            expectedSeq++;
             return item;
         }
     }
@@ -0,0 +1,481 @@
+package com.evan.algorithms.datastructures;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 紧凑的字符串字典，为每个不同的字符串分配从0开始的连续编号，支持双向查找。
+ * 所有字符串以"变长长度前缀 + UTF-8字节"的形式依次存放在少数几个大的ByteBuffer中，
+ * 编号到位置的映射是一个long数组，字符串到编号的映射是开放寻址(线性探测)的int数组，
+ * 因此每个字符串只占用其字节数加上十几个字节，没有String、Integer和哈希表节点的对象开销。
+ * 字节可以放在堆内、堆外(直接缓冲区)，或者通过{@link #write(Path)}写入文件后用内存映射打开。
+ * 不再添加字符串后可以调用{@link #freeze()}，用{@link MinimalPerfectHash}代替哈希表：
+ * 每个位置保存一个8 bit的指纹和按ceil(log2 n) bit紧凑存放的编号，加上哈希函数约3 bit，
+ * 索引每键约11 + ceil(log2 n) bit，例如100万个字符串约31 bit/键，1亿个约38 bit/键，
+ * 而负载0.5 ~ 0.75的int哈希表需要43 ~ 64 bit/键。编号保持不变，不按位置重新编号
+ */
+public class StringDictionary {
+    private static final int MAGIC = 0x44494354; // "DICT"
+    private static final int VERSION = 2;
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    // 每页最多1GB，一个字符串不会跨页
+    private static final int PAGE_SHIFT = 30;
+    private static final int MAX_PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final long POSITION_MASK = MAX_PAGE_SIZE - 1;
+    private static final int INITIAL_PAGE_SIZE = 1 << 16;
+    private static final double MAX_LOAD = 0.75;
+    private static final int CHUNK = 1 << 26; // 读取offsets和table时每次映射的元素个数
+    private static final int TABLE_INDEX = 0;
+    private static final int FROZEN_INDEX = 1;
+
+    private final boolean offHeap;
+    private final boolean readOnly; // 内存映射打开时为true
+    private ByteBuffer[] pages; // 只有最后一页还在写入
+    private long[] offsets; // offsets[id] = (页号 << PAGE_SHIFT) | 页内位置
+    private int[] table; // table[i] = id + 1，0表示空，冻结后为null
+    private int num;
+
+    // 冻结后的索引：字符串的哈希值经mph映射到位置slot，fingerprints[slot]是指纹，
+    // slotIds中第slot个idBits位的整数是编号
+    private MinimalPerfectHash mph;
+    private byte[] fingerprints;
+    private long[] slotIds;
+    private int idBits;
+    private long hashSeed; // 保证所有字符串的64位哈希值互不相同的种子
+
+    public StringDictionary() {
+        this(false);
+    }
+
+    // offHeap为true时字节存放在直接缓冲区中，不占用Java堆
+    public StringDictionary(boolean offHeap) {
+        this.offHeap = offHeap;
+        this.readOnly = false;
+        pages = new ByteBuffer[]{allocate(INITIAL_PAGE_SIZE)};
+        offsets = new long[16];
+        table = new int[32];
+    }
+
+    // 以只读方式映射由write生成的文件，字符串的字节留在文件中，由操作系统按需加载
+    public StringDictionary(Path path) {
+        if (path == null) throw new IllegalArgumentException("argument is null");
+        this.offHeap = true;
+        this.readOnly = true;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, 0, 16);
+            if (header.getInt() != MAGIC)
+                throw new IllegalArgumentException("invalid dictionary file " + path + ": bad magic number");
+            int version = header.getInt();
+            if (version != VERSION)
+                throw new IllegalArgumentException("unsupported dictionary file version " + version);
+            num = header.getInt();
+            int pageCount = header.getInt();
+            if (num < 0 || pageCount < 1)
+                throw new IllegalArgumentException("invalid dictionary file " + path + ": bad header");
+
+            long position = 16;
+            ByteBuffer pageSizes = read(channel, position, 4L * pageCount);
+            position += 4L * pageCount;
+            pages = new ByteBuffer[pageCount];
+            for (int p = 0; p < pageCount; p++) {
+                int size = pageSizes.getInt();
+                pages[p] = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                position += size;
+            }
+            offsets = new long[num];
+            for (int from = 0; from < num; from += CHUNK) {
+                int n = Math.min(CHUNK, num - from);
+                read(channel, position + 8L * from, 8L * n).asLongBuffer().get(offsets, from, n);
+            }
+            position += 8L * num;
+            int index = read(channel, position, 4).getInt();
+            position += 4;
+            if (index == TABLE_INDEX) {
+                int tableLength = read(channel, position, 4).getInt();
+                position += 4;
+                table = new int[tableLength];
+                for (int from = 0; from < tableLength; from += CHUNK) {
+                    int n = Math.min(CHUNK, tableLength - from);
+                    read(channel, position + 4L * from, 4L * n).asIntBuffer().get(table, from, n);
+                }
+                position += 4L * tableLength;
+            } else if (index == FROZEN_INDEX) {
+                ByteBuffer frozen = read(channel, position, 12);
+                hashSeed = frozen.getLong();
+                int mphBytes = frozen.getInt();
+                position += 12;
+                mph = num == 0 ? null : MinimalPerfectHash.readFrom(read(channel, position, mphBytes));
+                position += mphBytes;
+                fingerprints = new byte[num];
+                for (int from = 0; from < num; from += CHUNK) {
+                    int n = Math.min(CHUNK, num - from);
+                    read(channel, position + from, n).get(fingerprints, from, n);
+                }
+                position += num;
+                idBits = idBits(num);
+                slotIds = new long[packedLength(num, idBits)];
+                for (int from = 0; from < slotIds.length; from += CHUNK) {
+                    int n = Math.min(CHUNK, slotIds.length - from);
+                    read(channel, position + 8L * from, 8L * n).asLongBuffer().get(slotIds, from, n);
+                }
+                position += 8L * slotIds.length;
+            } else {
+                throw new IllegalArgumentException("invalid dictionary file " + path + ": unknown index " + index);
+            }
+            if (channel.size() != position)
+                throw new IllegalArgumentException("invalid dictionary file " + path + ": size does not match header");
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("Could not open " + path, ioe);
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ORDER);
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    public boolean isEmpty() {
+        return num == 0;
+    }
+
+    public int size() {
+        return num;
+    }
+
+    // 返回s的编号，s不存在时先为其分配编号size()
+    public int put(String s) {
+        if (s == null) throw new IllegalArgumentException("argument is null");
+        return put(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 按编号顺序加入other中的所有字符串，返回other中每个编号在本字典中的编号
+    public int[] putAll(StringDictionary other) {
+        int[] ids = new int[other.num];
+        for (int id = 0; id < other.num; id++) {
+            ids[id] = put(other.bytesOf(id));
+        }
+        return ids;
+    }
+
+    private int put(byte[] bytes) {
+        if (readOnly) throw new UnsupportedOperationException("dictionary is read-only");
+        if (isFrozen()) throw new UnsupportedOperationException("dictionary is frozen");
+        int hash = tableHash(bytes);
+        int i = find(bytes, hash);
+        if (table[i] != 0) return table[i] - 1;
+
+        int id = num++;
+        if (id == offsets.length) {
+            offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+        }
+        offsets[id] = append(bytes);
+        table[i] = id + 1;
+        if (num > MAX_LOAD * table.length) {
+            resize(table.length / 2 * 3);
+        }
+        return id;
+    }
+
+    // 将bytes连同长度前缀写入最后一页，返回其位置
+    private long append(byte[] bytes) {
+        int need = 5 + bytes.length;
+        ByteBuffer page = pages[pages.length - 1];
+        if (page.remaining() < need) {
+            if (page.capacity() < MAX_PAGE_SIZE && page.position() + need <= MAX_PAGE_SIZE) {
+                int capacity = (int) Math.min(MAX_PAGE_SIZE, Math.max(2L * page.capacity(), page.position() + need));
+                ByteBuffer grown = allocate(capacity);
+                page.flip();
+                grown.put(page);
+                page = grown;
+            } else {
+                if (need > MAX_PAGE_SIZE) throw new IllegalArgumentException("string is too long");
+                page = allocate(Math.max(INITIAL_PAGE_SIZE, need));
+                pages = Arrays.copyOf(pages, pages.length + 1);
+            }
+            pages[pages.length - 1] = page;
+        }
+        long offset = ((long) (pages.length - 1) << PAGE_SHIFT) | page.position();
+        int length = bytes.length;
+        while (length >= 0x80) {
+            page.put((byte) (length | 0x80));
+            length >>>= 7;
+        }
+        page.put((byte) length);
+        page.put(bytes);
+        return offset;
+    }
+
+    // 返回s的编号，s不存在时返回-1
+    public int indexOf(String s) {
+        if (s == null) throw new IllegalArgumentException("argument is null");
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (isFrozen()) {
+            if (num == 0) return -1;
+            long h = hash(bytes, hashSeed);
+            int slot = mph.slot(h);
+            // 指纹不同时一定不在字典中，不必读取字符串的字节
+            if (fingerprints[slot] != fingerprint(h)) return -1;
+            int id = slotId(slot);
+            return equals(id, bytes) ? id : -1;
+        }
+        return table[find(bytes, tableHash(bytes))] - 1;
+    }
+
+    public boolean contains(String s) {
+        return indexOf(s) >= 0;
+    }
+
+    public String nameOf(int id) {
+        return new String(bytesOf(id), StandardCharsets.UTF_8);
+    }
+
+    private byte[] bytesOf(int id) {
+        validateId(id);
+        ByteBuffer page = pages[(int) (offsets[id] >>> PAGE_SHIFT)];
+        int position = (int) (offsets[id] & POSITION_MASK);
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = page.get(position++);
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) break;
+        }
+        byte[] bytes = new byte[length];
+        page.get(position, bytes);
+        return bytes;
+    }
+
+    // 返回bytes所在的槽位，不存在时返回探测到的第一个空槽位
+    private int find(byte[] bytes, int hash) {
+        int i = slot(hash, table.length);
+        while (table[i] != 0 && !equals(table[i] - 1, bytes)) {
+            if (++i == table.length) i = 0;
+        }
+        return i;
+    }
+
+    private boolean equals(int id, byte[] bytes) {
+        ByteBuffer page = pages[(int) (offsets[id] >>> PAGE_SHIFT)];
+        int position = (int) (offsets[id] & POSITION_MASK);
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = page.get(position++);
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) break;
+        }
+        if (length != bytes.length) return false;
+        for (int k = 0; k < length; k++) {
+            if (page.get(position + k) != bytes[k]) return false;
+        }
+        return true;
+    }
+
+    private void resize(int capacity) {
+        int[] old = table;
+        table = new int[capacity];
+        for (int entry : old) {
+            if (entry == 0) continue;
+            int i = slot(tableHash(bytesOf(entry - 1)), capacity);
+            while (table[i] != 0) {
+                if (++i == capacity) i = 0;
+            }
+            table[i] = entry;
+        }
+    }
+
+    // 把32位哈希值均匀地映射到[0, capacity)，capacity不必是2的幂
+    private static int slot(int hash, int capacity) {
+        return (int) (((hash & 0xFFFFFFFFL) * capacity) >>> 32);
+    }
+
+    private static int tableHash(byte[] bytes) {
+        return (int) (hash(bytes, 0) >>> 32);
+    }
+
+    private static byte fingerprint(long hash) {
+        return (byte) hash;
+    }
+
+    // 编号0 ~ num-1需要的位数
+    private static int idBits(int num) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(num - 1));
+    }
+
+    private static int packedLength(int num, int bits) {
+        return (int) (((long) num * bits + 63) >>> 6);
+    }
+
+    private int slotId(int slot) {
+        long bit = (long) slot * idBits;
+        int word = (int) (bit >>> 6);
+        int shift = (int) (bit & 63);
+        long value = slotIds[word] >>> shift;
+        if (shift + idBits > 64) value |= slotIds[word + 1] << (64 - shift);
+        return (int) (value & ((1L << idBits) - 1));
+    }
+
+    private void setSlotId(int slot, int id) {
+        long bit = (long) slot * idBits;
+        int word = (int) (bit >>> 6);
+        int shift = (int) (bit & 63);
+        slotIds[word] |= (long) id << shift;
+        if (shift + idBits > 64) slotIds[word + 1] |= (long) id >>> (64 - shift);
+    }
+
+    // 冻结后的索引平均每个字符串占用的bit数，包括最小完美哈希、指纹和编号，不包括字符串本身和offsets
+    public double indexBitsPerKey() {
+        if (!isFrozen()) throw new UnsupportedOperationException("dictionary is not frozen");
+        if (num == 0) return 0;
+        return mph.bitsPerKey() + 8 + 64.0 * slotIds.length / num;
+    }
+
+    // 64位FNV-1a，再用MurmurHash3的finalizer打散
+    private static long hash(byte[] bytes, long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (byte b : bytes) {
+            h = (h ^ b) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public boolean isFrozen() {
+        return table == null;
+    }
+
+    // 之后不能再添加字符串，用最小完美哈希代替哈希表
+    public void freeze() {
+        if (isFrozen()) return;
+        long[] hashes = new long[num];
+        for (long seed = 0; ; seed++) {
+            for (int id = 0; id < num; id++) {
+                hashes[id] = hash(bytesOf(id), seed);
+            }
+            try {
+                mph = num == 0 ? null : new MinimalPerfectHash(hashes);
+                hashSeed = seed;
+                break;
+            } catch (IllegalArgumentException e) {
+                // 两个字符串的64位哈希值相同，换一个种子
+            }
+        }
+        fingerprints = new byte[num];
+        idBits = idBits(num);
+        slotIds = new long[packedLength(num, idBits)];
+        for (int id = 0; id < num; id++) {
+            int slot = mph.slot(hashes[id]);
+            fingerprints[slot] = fingerprint(hashes[id]);
+            setSlotId(slot, id);
+        }
+        table = null;
+    }
+
+    // 写成可以用StringDictionary(Path)映射的文件
+    public void write(Path path) {
+        if (path == null) throw new IllegalArgumentException("argument is null");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(16 + 4 * pages.length).order(ORDER);
+            header.putInt(MAGIC).putInt(VERSION).putInt(num).putInt(pages.length);
+            for (ByteBuffer page : pages) {
+                header.putInt(used(page));
+            }
+            drain(channel, header.flip());
+            for (ByteBuffer page : pages) {
+                drain(channel, page.duplicate().position(0).limit(used(page)));
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ORDER);
+            for (int id = 0; id < num; id++) {
+                if (buffer.remaining() < 8) drain(channel, buffer.flip());
+                buffer.putLong(offsets[id]);
+            }
+            if (isFrozen()) {
+                int mphBytes = num == 0 ? 0 : mph.serializedSize();
+                drain(channel, buffer.flip());
+                ByteBuffer index = ByteBuffer.allocate(16 + mphBytes).order(ORDER);
+                index.putInt(FROZEN_INDEX).putLong(hashSeed).putInt(mphBytes);
+                if (num > 0) mph.writeTo(index);
+                drain(channel, index.flip());
+                for (int from = 0; from < num; from += buffer.capacity()) {
+                    drain(channel, buffer.put(fingerprints, from, Math.min(buffer.capacity(), num - from)).flip());
+                }
+                for (long word : slotIds) {
+                    if (buffer.remaining() < 8) drain(channel, buffer.flip());
+                    buffer.putLong(word);
+                }
+            } else {
+                if (buffer.remaining() < 8) drain(channel, buffer.flip());
+                buffer.putInt(TABLE_INDEX).putInt(table.length);
+                for (int entry : table) {
+                    if (buffer.remaining() < 4) drain(channel, buffer.flip());
+                    buffer.putInt(entry);
+                }
+            }
+            drain(channel, buffer.flip());
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("Could not write " + path, ioe);
+        }
+    }
+
+    // 已写入的字节数，映射的页没有写入位置，整页都是数据
+    private int used(ByteBuffer page) {
+        return readOnly ? page.capacity() : page.position();
+    }
+
+    // 写出buffer中剩余的字节，然后清空buffer
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void validateId(int id) {
+        if (id < 0 || id >= num) {
+            throw new IllegalArgumentException("id " + id + " is not between 0 and " + (num - 1));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        StringDictionary dictionary = new StringDictionary();
+        String[] names = {"JFK", "MCO", "ORD", "DEN", "JFK", "北京", "ORD", ""};
+        for (String name : names) {
+            System.out.print(dictionary.put(name) + " ");
+        }
+        System.out.println();
+        System.out.println(dictionary.size() + " names, ORD -> " + dictionary.indexOf("ORD")
+                + ", 4 -> " + dictionary.nameOf(4) + ", LAX -> " + dictionary.indexOf("LAX"));
+
+        dictionary.freeze();
+        System.out.println("frozen: ORD -> " + dictionary.indexOf("ORD") + ", LAX -> " + dictionary.indexOf("LAX"));
+
+        StringDictionary large = new StringDictionary();
+        for (int i = 0; i < 1000000; i++) {
+            large.put("v" + i);
+        }
+        large.freeze();
+        System.out.printf("1000000 names, frozen index %.1f bits/key, v123456 -> %d\n",
+                large.indexBitsPerKey(), large.indexOf("v123456"));
+
+        Path path = Files.createTempFile("names", ".dict");
+        dictionary.write(path);
+        StringDictionary mapped = new StringDictionary(path);
+        System.out.println("mapped: ORD -> " + mapped.indexOf("ORD") + ", 4 -> " + mapped.nameOf(4)
+                + ", frozen " + mapped.isFrozen());
+        Files.delete(path);
+    }
+}
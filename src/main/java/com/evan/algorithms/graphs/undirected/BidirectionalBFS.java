@@ -0,0 +1,199 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.datastructures.Queue;
+import com.evan.algorithms.io.In;
+import com.evan.algorithms.io.StdRandom;
+
+import java.net.URL;
+
+/**
+ * 双向广度优先搜索，求两个顶点s和t之间的最短路径。
+ * 分别从s和t逐层扩展，每次扩展边界的边数较少的一侧，两侧第一次相遇时得到的路径就是最短路径：
+ * 此前两侧已访问的顶点之间没有边，所以最短路径长度至少为两侧深度之和加1，而相遇的路径正好是这个长度。
+ * 对低直径的图，两侧各扩展约一半的深度，检查的边通常只占完整BFS的很小一部分。
+ * 搜索使用{@link TraversalWorkspace}，耗时只与访问到的顶点数有关，与顶点总数无关
+ */
+public class BidirectionalBFS {
+    private static final int INF = Integer.MAX_VALUE;
+    private static final int SOURCE = 0; // 工作区中两侧顶点的标签
+    private static final int TARGET = 1;
+
+    private final int vertexCount;
+    private final int s;
+    private final int t;
+    private int[] path; // s-t的最短路径，不连通时为null
+    private long edgesExamined; // 检查过的边数(每条边的每个方向计一次)
+
+    // 以下字段只在搜索期间有效
+    private TraversalWorkspace ws;
+    private int[] edgeTo; // edgeTo[v] = 从所在一侧的起点到v的路径的最后一条边
+    private int[] distTo; // distTo[v] = 所在一侧的起点到v的最短路径长度
+    private int meetSource = -1; // 最短路径上相邻的两个顶点，分别位于s一侧和t一侧
+    private int meetTarget = -1;
+
+    public BidirectionalBFS(UndirectedGraph g, int s, int t) {
+        vertexCount = g.getVertexCount();
+        validateVertex(s);
+        validateVertex(t);
+        this.s = s;
+        this.t = t;
+        if (s == t) {
+            path = new int[]{s};
+            return;
+        }
+        ws = TraversalWorkspace.acquire(vertexCount);
+        try {
+            bfs(g);
+            if (meetSource != -1) path = buildPath();
+        } finally {
+            ws.release();
+            ws = null;
+            edgeTo = null;
+            distTo = null;
+        }
+    }
+
+    private void bfs(UndirectedGraph g) {
+        // 每一侧按访问顺序保存顶点，当前层是[levelStart, size)
+        int[] sourceQueue = ws.ints(TraversalWorkspace.INT_0);
+        int[] targetQueue = ws.ints(TraversalWorkspace.INT_1);
+        edgeTo = ws.ints(TraversalWorkspace.INT_2);
+        distTo = ws.ints(TraversalWorkspace.INT_3);
+        sourceQueue[0] = s;
+        targetQueue[0] = t;
+        ws.mark(s, SOURCE);
+        ws.mark(t, TARGET);
+        distTo[s] = 0;
+        distTo[t] = 0;
+        int sourceStart = 0, sourceSize = 1;
+        int targetStart = 0, targetSize = 1;
+        long sourceEdges = g.degree(s), targetEdges = g.degree(t);
+
+        while (sourceStart < sourceSize && targetStart < targetSize) {
+            if (sourceEdges <= targetEdges) {
+                int end = sourceSize;
+                sourceSize = expand(g, sourceQueue, sourceStart, end, SOURCE);
+                sourceStart = end;
+                sourceEdges = frontierEdges(g, sourceQueue, sourceStart, sourceSize);
+            } else {
+                int end = targetSize;
+                targetSize = expand(g, targetQueue, targetStart, end, TARGET);
+                targetStart = end;
+                targetEdges = frontierEdges(g, targetQueue, targetStart, targetSize);
+            }
+            if (meetSource != -1) return;
+        }
+    }
+
+    // 扩展queue[from, to)这一层，返回扩展后queue中的顶点数；遇到另一侧的顶点时记录相遇的边并立即返回
+    private int expand(UndirectedGraph g, int[] queue, int from, int to, int mine) {
+        int size = to;
+        for (int k = from; k < to; k++) {
+            int v = queue[k];
+            for (int i = 0, n = g.degree(v); i < n; i++) {
+                int w = g.adj(v, i);
+                edgesExamined++;
+                int label = ws.label(w);
+                if (label == -1) {
+                    ws.mark(w, mine);
+                    edgeTo[w] = v;
+                    distTo[w] = distTo[v] + 1;
+                    queue[size++] = w;
+                } else if (label != mine) {
+                    meetSource = mine == SOURCE ? v : w;
+                    meetTarget = mine == SOURCE ? w : v;
+                    return size;
+                }
+            }
+        }
+        return size;
+    }
+
+    private static long frontierEdges(UndirectedGraph g, int[] queue, int from, int to) {
+        long edges = 0;
+        for (int k = from; k < to; k++) {
+            edges += g.degree(queue[k]);
+        }
+        return edges;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= vertexCount) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (vertexCount - 1));
+        }
+    }
+
+    // 沿两侧的edgeTo分别走回s和t
+    private int[] buildPath() {
+        int[] vertices = new int[distTo[meetSource] + 1 + distTo[meetTarget] + 1];
+        int i = distTo[meetSource];
+        for (int x = meetSource; ; x = edgeTo[x]) {
+            vertices[i--] = x;
+            if (x == s) break;
+        }
+        i = vertices.length - 1 - distTo[meetTarget];
+        for (int x = meetTarget; ; x = edgeTo[x]) {
+            vertices[i++] = x;
+            if (x == t) break;
+        }
+        return vertices;
+    }
+
+    public boolean hasPath() {
+        return path != null;
+    }
+
+    // s-t的最短路径长度，不连通时为Integer.MAX_VALUE
+    public int distance() {
+        return hasPath() ? path.length - 1 : INF;
+    }
+
+    // 从s到t的最短路径，不连通时返回null
+    public Iterable<Integer> path() {
+        if (!hasPath()) {
+            return null;
+        }
+        Queue<Integer> result = new Queue<>();
+        for (int v : path) {
+            result.enqueue(v);
+        }
+        return result;
+    }
+
+    public long edgesExamined() {
+        return edgesExamined;
+    }
+
+    public static void main(String[] args) {
+        URL url = BidirectionalBFS.class.getResource("/graph/tinyCG.txt");
+        Graph g = new Graph(new In(url));
+        for (int t = 0; t < g.getVertexCount(); t++) {
+            BidirectionalBFS bfs = new BidirectionalBFS(g, 0, t);
+            System.out.printf("0 to %d (%d):  ", t, bfs.distance());
+            for (int x : bfs.path()) {
+                if (x == 0) System.out.print(x);
+                else System.out.print("-" + x);
+            }
+            System.out.println();
+        }
+
+        int vertexCount = 200000;
+        StdRandom.setSeed(42);
+        Graph random = new Graph(vertexCount);
+        for (int i = 0; i < 4 * vertexCount; i++) {
+            random.addEdge(StdRandom.uniformInt(vertexCount), StdRandom.uniformInt(vertexCount));
+        }
+        BreadthFirstPaths expected = new BreadthFirstPaths(random, 0);
+        long examined = 0;
+        int queries = 100;
+        for (int q = 0; q < queries; q++) {
+            int t = StdRandom.uniformInt(vertexCount);
+            BidirectionalBFS bfs = new BidirectionalBFS(random, 0, t);
+            if (bfs.distance() != expected.distTo(t))
+                throw new IllegalStateException("distance(0, " + t + ") mismatch");
+            examined += bfs.edgesExamined();
+        }
+        System.out.println("full BFS edges examined: " + 2L * random.getEdgeCount());
+        System.out.println("bidirectional BFS edges examined per query: " + examined / queries);
+    }
+}
@@ -10,54 +10,63 @@ import java.net.URL;
  * 这里使用递归的dfs判断，{@link BipartiteX}使用非递归的bfs判断
  */
 public class Bipartite {
-    private final boolean[] marked;
-    private final int[] edgeTo;
     private final boolean[] color;
     private boolean isBipartite;
     private Stack<Integer> cycle;
 
-    public Bipartite(Graph g) {
-        marked = new boolean[g.getVertexCount()];
-        edgeTo = new int[g.getVertexCount()];
+    public Bipartite(UndirectedGraph g) {
         color = new boolean[g.getVertexCount()];
         isBipartite = true;
 
-        for (int v = 0; v < g.getVertexCount(); v++) {
-            if (!marked[v]) {
-                dfs(g, v);
-            }
-        }
+        TraversalWorkspace ws = TraversalWorkspace.acquire(g.getVertexCount());
+        try {
+            int[] edgeTo = ws.ints(TraversalWorkspace.INT_2);
+            DepthFirstTraversal dfs = new DepthFirstTraversal(g, ws);
+            DepthFirstTraversal.Visitor visitor = new DepthFirstTraversal.Visitor() {
+                @Override
+                public void preorder(int v, int parent) {
+                    if (parent >= 0) {
+                        edgeTo[v] = parent;
+                        color[v] = !color[parent];
+                    }
+                }
 
-        assert check(g);
-    }
+                @Override
+                public void nonTreeEdge(int v, int w) {
+                    if (color[w] == color[v]) {
+                        isBipartite = false;
+                        cycle = new Stack<>();
+                        cycle.push(w);
+                        for (int x = v; x != w; x = edgeTo[x]) {
+                            cycle.push(x);
+                        }
+                        cycle.push(w);
+                    }
+                }
 
-    private void dfs(Graph g, int v) {
-        marked[v] = true;
-
-        for (Integer w : g.adj(v)) {
-            // 已找到奇数长度的环
-            if (cycle != null) return;
-
-            if (!marked[w]) {
-                edgeTo[w] = v;
-                color[w] = !color[v];
-                dfs(g, w);
-            } else if (color[w] == color[v]) {
-                isBipartite = false;
-                cycle = new Stack<>();
-                cycle.push(w);
-                for (int x = v; x != w; x = edgeTo[x]) {
-                    cycle.push(x);
+                @Override
+                public boolean done() {
+                    // 已找到奇数长度的环
+                    return cycle != null;
+                }
+            };
+            for (int v = 0; v < g.getVertexCount(); v++) {
+                if (!ws.isMarked(v)) {
+                    dfs.run(v, visitor);
                 }
-                cycle.push(w);
             }
+        } finally {
+            ws.release();
         }
+
+        assert check(g);
     }
 
-    private boolean check(Graph g) {
+    private boolean check(UndirectedGraph g) {
         if (isBipartite) {
             for (int v = 0; v < g.getVertexCount(); v++) {
-                for (Integer w : g.adj(v)) {
+                for (int i = 0, n = g.degree(v); i < n; i++) {
+                    int w = g.adj(v, i);
                     if (color[w] == color[v]) {
                         System.err.printf("edge %d-%d with %d and %d in same side of bipartition\n", v, w, v, w);
                         return false;
@@ -98,8 +107,8 @@ public class Bipartite {
     }
 
     private void validateVertex(int v) {
-        if (v < 0 || v >= marked.length) {
-            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (marked.length - 1));
+        if (v < 0 || v >= color.length) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (color.length - 1));
         }
     }
 
@@ -118,7 +127,7 @@ public class Bipartite {
         testBipartite(g2);
     }
 
-    private static void testBipartite(Graph g) {
+    private static void testBipartite(UndirectedGraph g) {
         Bipartite bipartite = new Bipartite(g);
         if (bipartite.isBipartite()) {
             System.out.println("graph is bipartite");
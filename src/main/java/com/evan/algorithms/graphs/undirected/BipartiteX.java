@@ -1,7 +1,7 @@
 package com.evan.algorithms.graphs.undirected;
 
-import com.evan.algorithms.datastructures.Queue;
-import com.evan.algorithms.datastructures.Stack;
+import com.evan.algorithms.datastructures.IntQueue;
+import com.evan.algorithms.datastructures.IntStack;
 import com.evan.algorithms.io.In;
 
 import java.net.URL;
@@ -17,32 +17,34 @@ public class BipartiteX {
     private boolean[] color;
     private boolean[] marked;
     private int[] edgeTo;
-    private Queue<Integer> cycle;
+    private IntQueue cycle;
 
-    public BipartiteX(Graph g) {
+    public BipartiteX(UndirectedGraph g) {
         isBipartite = true;
         color = new boolean[g.getVertexCount()];
         marked = new boolean[g.getVertexCount()];
         edgeTo = new int[g.getVertexCount()];
 
+        // 所有连通分量共用一个队列
+        IntQueue q = new IntQueue();
         for (int v = 0; v < g.getVertexCount() && isBipartite; v++) {
             if (!marked[v]) {
-                bfs(g, v);
+                bfs(g, v, q);
             }
         }
 
         assert check(g);
     }
 
-    private void bfs(Graph g, int s) {
-        Queue<Integer> q = new Queue<>();
+    private void bfs(UndirectedGraph g, int s, IntQueue q) {
         color[s] = WHITE;
         marked[s] = true;
         q.enqueue(s);
 
         while (!q.isEmpty()) {
-            Integer v = q.dequeue();
-            for (Integer w : g.adj(v)) {
+            int v = q.dequeue();
+            for (int i = 0, n = g.degree(v); i < n; i++) {
+                int w = g.adj(v, i);
                 if (!marked[w]) {
                     marked[w] = true;
                     color[w] = !color[v];
@@ -55,8 +57,8 @@ public class BipartiteX {
                     // 由于v与w同色，则v与w位于同一层，distTo[v] == distTo[w]
                     // 设x为v与w最近的公共祖先，Path(x-v) == Path(x-w)
                     // cycle = Path(x-v) + Path(x-w) + Edge(v-w)，长度为奇数
-                    cycle = new Queue<>();
-                    Stack<Integer> stack = new Stack<>();
+                    cycle = new IntQueue();
+                    IntStack stack = new IntStack();
                     int x = v, y = w;
                     while (x != y) {
                         // stack 记录v-x
@@ -77,10 +79,11 @@ public class BipartiteX {
         }
     }
 
-    private boolean check(Graph g) {
+    private boolean check(UndirectedGraph g) {
         if (isBipartite) {
             for (int v = 0; v < g.getVertexCount(); v++) {
-                for (Integer w : g.adj(v)) {
+                for (int i = 0, n = g.degree(v); i < n; i++) {
+                    int w = g.adj(v, i);
                     if (color[w] == color[v]) {
                         System.err.printf("edge %d-%d with %d and %d in same side of bipartition\n", v, w, v, w);
                         return false;
@@ -141,7 +144,7 @@ public class BipartiteX {
         testBipartiteX(g2);
     }
 
-    private static void testBipartiteX(Graph g) {
+    private static void testBipartiteX(UndirectedGraph g) {
         BipartiteX bipartiteX = new BipartiteX(g);
         if (bipartiteX.isBipartite()) {
             System.out.println("graph is bipartite");
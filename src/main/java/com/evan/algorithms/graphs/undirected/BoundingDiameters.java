@@ -0,0 +1,165 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.io.StdOut;
+import com.evan.algorithms.io.StdRandom;
+
+import java.util.Arrays;
+
+/**
+ * 精确计算连通图的直径、半径和中心(Takes & Kosters的BoundingDiameters算法)，
+ * 不需要像{@link GraphProperties}那样从每个顶点都做一次BFS。
+ * 从顶点v做一次BFS得到ecc(v)后，对任意顶点w有
+ * max(ecc(v) - d(v,w), d(v,w)) <= ecc(w) <= ecc(v) + d(v,w)，
+ * 据此维护每个顶点离心率的上下界，交替选择上界最大和下界最小的顶点作为下一个起点，
+ * 当一个顶点既不可能增大直径也不可能减小半径时将其排除，所有顶点都被排除时结果即为精确值
+ */
+public class BoundingDiameters {
+    private final int[] lower; // lower[v] = ecc(v)的下界
+    private final int[] upper; // upper[v] = ecc(v)的上界
+    private final boolean[] candidate; // 是否仍可能影响直径或半径
+    private final int[] distTo;
+    private final int[] queue;
+    private int diameter;
+    private int radius = Integer.MAX_VALUE;
+    private int center;
+    private int bfsCount;
+
+    public BoundingDiameters(UndirectedGraph g) {
+        int vertexCount = g.getVertexCount();
+        if (vertexCount == 0) throw new IllegalArgumentException("graph is empty");
+        CC cc = new CC(g);
+        if (cc.count() != 1)
+            throw new IllegalArgumentException("graph is not connected");
+
+        lower = new int[vertexCount];
+        upper = new int[vertexCount];
+        candidate = new boolean[vertexCount];
+        distTo = new int[vertexCount];
+        queue = new int[vertexCount];
+        Arrays.fill(upper, Integer.MAX_VALUE);
+        Arrays.fill(candidate, true);
+        compute(g);
+    }
+
+    private void compute(UndirectedGraph g) {
+        int remaining = candidate.length;
+        boolean pickUpper = true;
+        while (remaining > 0) {
+            int v = select(g, pickUpper);
+            pickUpper = !pickUpper;
+            int ecc = bfs(g, v);
+            bfsCount++;
+
+            lower[v] = ecc;
+            upper[v] = ecc;
+            for (int w = 0; w < candidate.length; w++) {
+                if (!candidate[w]) continue;
+                int d = distTo[w];
+                lower[w] = Math.max(lower[w], Math.max(ecc - d, d));
+                upper[w] = Math.min(upper[w], ecc + d);
+                diameter = Math.max(diameter, lower[w]);
+            }
+
+            // 上下界相等的顶点离心率已知，无需再做BFS
+            for (int w = 0; w < candidate.length; w++) {
+                if (candidate[w] && lower[w] == upper[w] && lower[w] < radius) {
+                    radius = lower[w];
+                    center = w;
+                }
+            }
+            for (int w = 0; w < candidate.length; w++) {
+                if (!candidate[w]) continue;
+                boolean known = lower[w] == upper[w];
+                if (known || (upper[w] <= diameter && lower[w] >= radius)) {
+                    candidate[w] = false;
+                    remaining--;
+                }
+            }
+        }
+    }
+
+    // 在候选顶点中选择上界最大(或下界最小)的顶点，相同时选择度数最大的顶点
+    private int select(UndirectedGraph g, boolean pickUpper) {
+        int best = -1;
+        for (int w = 0; w < candidate.length; w++) {
+            if (!candidate[w]) continue;
+            if (best == -1) {
+                best = w;
+                continue;
+            }
+            int cmp = pickUpper ? Integer.compare(upper[w], upper[best]) : Integer.compare(lower[best], lower[w]);
+            if (cmp > 0 || (cmp == 0 && g.degree(w) > g.degree(best))) {
+                best = w;
+            }
+        }
+        return best;
+    }
+
+    // 从s做BFS，填充distTo并返回s的离心率
+    private int bfs(UndirectedGraph g, int s) {
+        Arrays.fill(distTo, -1);
+        distTo[s] = 0;
+        queue[0] = s;
+        int head = 0;
+        int tail = 1;
+        int ecc = 0;
+        while (head < tail) {
+            int v = queue[head++];
+            ecc = distTo[v];
+            for (int i = 0, n = g.degree(v); i < n; i++) {
+                int w = g.adj(v, i);
+                if (distTo[w] < 0) {
+                    distTo[w] = distTo[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return ecc;
+    }
+
+    public int diameter() {
+        return diameter;
+    }
+
+    public int radius() {
+        return radius;
+    }
+
+    // 返回一个离心率等于半径的顶点
+    public int center() {
+        return center;
+    }
+
+    // 计算过程中执行的BFS次数
+    public int bfsCount() {
+        return bfsCount;
+    }
+
+    public static void main(String[] args) {
+        Graph path = new Graph(11);
+        for (int v = 0; v < 10; v++) {
+            path.addEdge(v, v + 1);
+        }
+        BoundingDiameters bd = new BoundingDiameters(path);
+        StdOut.println("Diameter: " + bd.diameter() + " Expected: 10");
+        StdOut.println("Radius: " + bd.radius() + " Expected: 5");
+        StdOut.println("Center: " + bd.center() + " Expected: 5");
+        StdOut.println("BFS runs: " + bd.bfsCount());
+
+        int vertexCount = 3000;
+        StdRandom.setSeed(11);
+        Graph g = new Graph(vertexCount);
+        for (int v = 1; v < vertexCount; v++) {
+            g.addEdge(v, StdRandom.uniformInt(v));
+        }
+        for (int i = 0; i < vertexCount / 2; i++) {
+            g.addEdge(StdRandom.uniformInt(vertexCount), StdRandom.uniformInt(vertexCount));
+        }
+        GraphProperties expected = new GraphProperties(g);
+        BoundingDiameters actual = new BoundingDiameters(g);
+        StdOut.println("diameter " + actual.diameter() + " (expected " + expected.diameter() + "), radius "
+                + actual.radius() + " (expected " + expected.radius() + "), center eccentricity "
+                + expected.eccentricity(actual.center()) + ", " + actual.bfsCount() + " BFS runs instead of "
+                + vertexCount);
+    }
+}
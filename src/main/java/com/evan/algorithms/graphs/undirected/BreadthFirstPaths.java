@@ -1,28 +1,25 @@
 package com.evan.algorithms.graphs.undirected;
 
-import com.evan.algorithms.datastructures.Queue;
-import com.evan.algorithms.datastructures.Stack;
+import com.evan.algorithms.datastructures.IntQueue;
+import com.evan.algorithms.datastructures.IntStack;
 import com.evan.algorithms.io.In;
 
 import java.net.URL;
 import java.util.List;
 
 public class BreadthFirstPaths {
-    private static final Integer INF = Integer.MAX_VALUE;
-    private final boolean[] marked;
+    private static final int INF = Integer.MAX_VALUE;
     private final int[] edgeTo; // edgeTo[v] = s(sources)-v的路径的最后一条边
-    private final int[] distTo; // distTo[v] = s(sources)-v的最短路径长度
+    private final int[] distTo; // distTo[v] = s(sources)-v的最短路径长度，不可达时为INF
 
-    public BreadthFirstPaths(Graph g, int s) {
-        marked = new boolean[g.getVertexCount()];
+    public BreadthFirstPaths(UndirectedGraph g, int s) {
         edgeTo = new int[g.getVertexCount()];
         distTo = new int[g.getVertexCount()];
         validateVertex(s);
         bfs(g, s);
     }
 
-    public BreadthFirstPaths(Graph g, Iterable<Integer> sources) {
-        marked = new boolean[g.getVertexCount()];
+    public BreadthFirstPaths(UndirectedGraph g, Iterable<Integer> sources) {
         edgeTo = new int[g.getVertexCount()];
         distTo = new int[g.getVertexCount()];
         validateVertices(sources);
@@ -46,22 +43,21 @@ public class BreadthFirstPaths {
         }
     }
 
-    private void bfs(Graph g, int s) {
+    private void bfs(UndirectedGraph g, int s) {
         for (int v = 0; v < g.getVertexCount(); v++) {
             distTo[v] = INF;
         }
         distTo[s] = 0;
-        marked[s] = true;
-        Queue<Integer> q = new Queue<>();
+        IntQueue q = new IntQueue();
         q.enqueue(s);
 
         while (!q.isEmpty()) {
-            Integer v = q.dequeue();
-            for (int w : g.adj(v)) {
-                if (!marked[w]) {
+            int v = q.dequeue();
+            for (int i = 0, n = g.degree(v); i < n; i++) {
+                int w = g.adj(v, i);
+                if (distTo[w] == INF) {
                     edgeTo[w] = v;
                     distTo[w] = distTo[v] + 1;
-                    marked[w] = true;
                     q.enqueue(w);
                 }
             }
@@ -69,24 +65,23 @@ public class BreadthFirstPaths {
     }
 
     // 多个起点
-    private void bfs(Graph g, Iterable<Integer> sources) {
+    private void bfs(UndirectedGraph g, Iterable<Integer> sources) {
         for (int v = 0; v < g.getVertexCount(); v++) {
             distTo[v] = INF;
         }
-        Queue<Integer> q = new Queue<>();
+        IntQueue q = new IntQueue();
         for (Integer s : sources) {
-            marked[s] = true;
             distTo[s] = 0;
             q.enqueue(s);
         }
 
         while (!q.isEmpty()) {
-            Integer v = q.dequeue();
-            for (int w : g.adj(v)) {
-                if (!marked[w]) {
+            int v = q.dequeue();
+            for (int i = 0, n = g.degree(v); i < n; i++) {
+                int w = g.adj(v, i);
+                if (distTo[w] == INF) {
                     edgeTo[w] = v;
                     distTo[w] = distTo[v] + 1;
-                    marked[w] = true;
                     q.enqueue(w);
                 }
             }
@@ -94,14 +89,14 @@ public class BreadthFirstPaths {
     }
 
     private void validateVertex(int v) {
-        if (v < 0 || v >= marked.length) {
-            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (marked.length - 1));
+        if (v < 0 || v >= distTo.length) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (distTo.length - 1));
         }
     }
 
     public boolean hasPathTo(int v) {
         validateVertex(v);
-        return marked[v];
+        return distTo[v] != INF;
     }
 
     public int distTo(int v) {
@@ -114,7 +109,7 @@ public class BreadthFirstPaths {
         if (!hasPathTo(v)) {
             return null;
         }
-        Stack<Integer> path = new Stack<>();
+        IntStack path = new IntStack(distTo[v] + 1);
         int x;
         for (x = v; distTo[x] != 0; x = edgeTo[x]) {
             path.push(x);
@@ -131,7 +126,7 @@ public class BreadthFirstPaths {
         testMultipleSources(g);
     }
 
-    private static void testOneSource(Graph g) {
+    private static void testOneSource(UndirectedGraph g) {
         int s = 0;
         BreadthFirstPaths bfs = new BreadthFirstPaths(g, s);
 
@@ -149,7 +144,7 @@ public class BreadthFirstPaths {
         }
     }
 
-    private static void testMultipleSources(Graph g) {
+    private static void testMultipleSources(UndirectedGraph g) {
         List<Integer> sources = List.of(2, 3);
         BreadthFirstPaths bfs2 = new BreadthFirstPaths(g, sources);
 
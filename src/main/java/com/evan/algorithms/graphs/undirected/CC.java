@@ -7,31 +7,31 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class CC {
-    private final boolean[] marked;
     private final int[] id; // id[v] = v所属连通分量id
     private final int[] size; // size[v] = v所属连通分量的元素个数
     private int count; // 连通分量的个数
 
-    public CC(Graph g) {
-        marked = new boolean[g.getVertexCount()];
+    public CC(UndirectedGraph g) {
         id = new int[g.getVertexCount()];
         size = new int[g.getVertexCount()];
-        for (int v = 0; v < g.getVertexCount(); v++) {
-            if (!marked[v]) {
-                dfs(g, v);
-                count++;
-            }
-        }
-    }
-
-    private void dfs(Graph g, int v) {
-        marked[v] = true;
-        id[v] = count;
-        size[count]++;
-        for (int w : g.adj(v)) {
-            if (!marked[w]) {
-                dfs(g, w);
+        TraversalWorkspace ws = TraversalWorkspace.acquire(g.getVertexCount());
+        try {
+            DepthFirstTraversal dfs = new DepthFirstTraversal(g, ws);
+            DepthFirstTraversal.Visitor visitor = new DepthFirstTraversal.Visitor() {
+                @Override
+                public void preorder(int v, int parent) {
+                    id[v] = count;
+                    size[count]++;
+                }
+            };
+            for (int v = 0; v < g.getVertexCount(); v++) {
+                if (!ws.isMarked(v)) {
+                    dfs.run(v, visitor);
+                    count++;
+                }
             }
+        } finally {
+            ws.release();
         }
     }
 
@@ -56,8 +56,8 @@ public class CC {
     }
 
     private void validateVertex(int v) {
-        if (v < 0 || v >= marked.length) {
-            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (marked.length - 1));
+        if (v < 0 || v >= id.length) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (id.length - 1));
         }
     }
 
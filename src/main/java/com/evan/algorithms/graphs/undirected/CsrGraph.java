@@ -0,0 +1,204 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.io.In;
+
+import java.net.URL;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 不可变的无向图，使用压缩稀疏行(CSR)格式存储：
+ * 顶点v的相邻顶点依次存放在targets[offsets[v]..offsets[v+1])中。
+ * 每条边只占两个int，遍历相邻顶点是对连续内存的顺序访问，
+ * 相邻顶点的顺序与{@link Graph}相同
+ */
+public class CsrGraph implements UndirectedGraph {
+    private static final String NEWLINE = System.lineSeparator();
+    // targets的长度为2 * edgeCount，不能超过数组的最大长度；更大的图使用MappedGraph
+    private static final int MAX_EDGES = (Integer.MAX_VALUE - 8) / 2;
+
+    private final int vertexCount;
+    private final int edgeCount;
+    private final int[] offsets; // 长度为vertexCount + 1
+    private final int[] targets; // 长度为2 * edgeCount，自环会出现两次
+
+    public CsrGraph(Graph g) {
+        if (g == null) throw new IllegalArgumentException("argument is null");
+        this.vertexCount = g.getVertexCount();
+        this.edgeCount = g.getEdgeCount();
+        validateEdgeCount(edgeCount);
+        offsets = new int[vertexCount + 1];
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] = offsets[v] + g.degree(v);
+        }
+        targets = new int[offsets[vertexCount]];
+        for (int v = 0; v < vertexCount; v++) {
+            int i = offsets[v];
+            for (int w : g.adj(v)) {
+                targets[i++] = w;
+            }
+        }
+    }
+
+    // 第i条边为edges[2i]-edges[2i + 1]，相邻顶点的顺序与按同样顺序调用Graph.addEdge相同
+    CsrGraph(int vertexCount, int[] edges, int edgeCount) {
+        if (vertexCount < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        validateEdgeCount(edgeCount);
+        if (edges.length < 2L * edgeCount)
+            throw new IllegalArgumentException("invalid number of edges: " + edgeCount);
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        for (int i = 0; i < 2 * edgeCount; i++) {
+            validateVertex(edges[i]);
+        }
+        offsets = offsets(vertexCount, edges, edgeCount);
+        targets = targets(vertexCount, offsets, edges, edgeCount);
+    }
+
+    public CsrGraph(In in) {
+        if (in == null) throw new IllegalArgumentException("argument is null");
+        try {
+            this.vertexCount = in.readInt();
+            if (vertexCount < 0)
+                throw new IllegalArgumentException("number of vertices in a Graph must be non-negative");
+            this.edgeCount = in.readInt();
+            if (edgeCount < 0) throw new IllegalArgumentException("number of edges in a Graph must be non-negative");
+            validateEdgeCount(edgeCount);
+
+            // 先把边读入平坦数组，再按度数划分targets
+            int[] edges = new int[2 * edgeCount];
+            for (int i = 0; i < edges.length; i += 2) {
+                int v = in.readInt();
+                int w = in.readInt();
+                validateVertex(v);
+                validateVertex(w);
+                edges[i] = v;
+                edges[i + 1] = w;
+            }
+            offsets = offsets(vertexCount, edges, edgeCount);
+            targets = targets(vertexCount, offsets, edges, edgeCount);
+        } catch (NoSuchElementException e) {
+            throw new IllegalArgumentException("invalid input format in CsrGraph constructor", e);
+        }
+    }
+
+    // 在计算2 * edgeCount之前检查，否则超过2^30条边时乘法溢出，得到负数或过小的数组长度
+    private static void validateEdgeCount(long edgeCount) {
+        if (edgeCount < 0) throw new IllegalArgumentException("invalid number of edges: " + edgeCount);
+        if (edgeCount > MAX_EDGES)
+            throw new IllegalArgumentException("too many edges for a CsrGraph: " + edgeCount + " (at most " + MAX_EDGES + ")");
+    }
+
+    private static int[] offsets(int vertexCount, int[] edges, int edgeCount) {
+        int[] offsets = new int[vertexCount + 1];
+        for (int i = 0; i < 2 * edgeCount; i++) {
+            offsets[edges[i] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        return offsets;
+    }
+
+    // 从每个区间的末尾向前填充，后添加的边排在前面，与Graph中Bag的迭代顺序一致
+    private static int[] targets(int vertexCount, int[] offsets, int[] edges, int edgeCount) {
+        int[] targets = new int[2 * edgeCount];
+        int[] next = new int[vertexCount];
+        System.arraycopy(offsets, 1, next, 0, vertexCount);
+        for (int i = 0; i < 2 * edgeCount; i += 2) {
+            int v = edges[i];
+            int w = edges[i + 1];
+            targets[--next[v]] = w;
+            targets[--next[w]] = v;
+        }
+        return targets;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= vertexCount)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (vertexCount - 1));
+    }
+
+    @Override
+    public Iterable<Integer> adj(int v) {
+        validateVertex(v);
+        int start = offsets[v];
+        int end = offsets[v + 1];
+        return () -> new RangeIterator(targets, start, end);
+    }
+
+    @Override
+    public int adj(int v, int i) {
+        validateVertex(v);
+        if (i < 0 || i >= offsets[v + 1] - offsets[v])
+            throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (offsets[v + 1] - offsets[v] - 1));
+        return targets[offsets[v] + i];
+    }
+
+    @Override
+    public int degree(int v) {
+        validateVertex(v);
+        return offsets[v + 1] - offsets[v];
+    }
+
+    private static class RangeIterator implements Iterator<Integer> {
+        private final int[] targets;
+        private final int end;
+        private int current;
+
+        RangeIterator(int[] targets, int start, int end) {
+            this.targets = targets;
+            this.current = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < end;
+        }
+
+        @Override
+        public Integer next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return targets[current++];
+        }
+    }
+
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(vertexCount).append(" vertices, ")
+                .append(edgeCount).append(" edges ").append(NEWLINE);
+        for (int v = 0; v < vertexCount; v++) {
+            s.append(v).append(": ");
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                s.append(targets[i]).append(" ");
+            }
+            s.append(NEWLINE);
+        }
+        return s.toString();
+    }
+
+    public static void main(String[] args) {
+        URL url = CsrGraph.class.getResource("/graph/tinyG.txt");
+        Graph g = new Graph(new In(url));
+        CsrGraph csr = new CsrGraph(g);
+        System.out.println(csr);
+        CsrGraph csr2 = new CsrGraph(new In(url));
+        System.out.println(csr.toString().equals(csr2.toString()) + " " + csr.toString().equals(g.toString()));
+
+        CC cc = new CC(csr);
+        System.out.println(cc.count() + " components");
+        System.out.println("has cycle: " + new Cycle(csr).hasCycle());
+        System.out.println("is bipartite: " + new Bipartite(csr).isBipartite());
+    }
+}
@@ -6,51 +6,82 @@ import com.evan.algorithms.io.In;
 import java.net.URL;
 
 public class Cycle {
-    private boolean[] marked;
-    private int[] edgeTo;
     private Stack<Integer> cycle;
 
-    public Cycle(Graph g) {
-        // need special case to identify parallel edge as a cycle
-        if (hasParallelEdges(g)) return;
+    public Cycle(UndirectedGraph g) {
+        TraversalWorkspace ws = TraversalWorkspace.acquire(g.getVertexCount());
+        try {
+            // need special case to identify parallel edge as a cycle
+            if (hasParallelEdges(g, ws)) return;
 
-        // don't need special case to identify self-loop as a cycle
-        // if (hasSelfLoop(g)) return;
+            // don't need special case to identify self-loop as a cycle
+            // if (hasSelfLoop(g)) return;
 
-        marked = new boolean[g.getVertexCount()];
-        edgeTo = new int[g.getVertexCount()];
-        for (int v = 0; v < g.getVertexCount(); v++) {
-            if (!marked[v]) {
-                dfs(g, -1, v);
-            }
+            ws.clear();
+            findCycle(g, ws);
+        } finally {
+            ws.release();
         }
     }
 
-    private boolean hasParallelEdges(Graph g) {
-        marked = new boolean[g.getVertexCount()];
+    private void findCycle(UndirectedGraph g, TraversalWorkspace ws) {
+        int[] edgeTo = ws.ints(TraversalWorkspace.INT_2);
+        DepthFirstTraversal dfs = new DepthFirstTraversal(g, ws);
+        DepthFirstTraversal.Visitor visitor = new DepthFirstTraversal.Visitor() {
+            @Override
+            public void preorder(int v, int parent) {
+                edgeTo[v] = parent;
+            }
+
+            @Override
+            public void nonTreeEdge(int v, int w) {
+                // 检查环，但忽略指向 v 的边的反向(忽略v->u)
+                if (w != edgeTo[v]) {
+                    cycle = new Stack<>();
+                    for (int x = v; x != w; x = edgeTo[x]) {
+                        cycle.push(x);
+                    }
+                    cycle.push(w);
+                    cycle.push(v);
+                }
+            }
+
+            @Override
+            public boolean done() {
+                // 已找到环
+                return cycle != null;
+            }
+        };
+        for (int v = 0; v < g.getVertexCount() && cycle == null; v++) {
+            if (!ws.isMarked(v)) {
+                dfs.run(v, visitor);
+            }
+        }
+    }
 
+    private boolean hasParallelEdges(UndirectedGraph g, TraversalWorkspace ws) {
         for (int v = 0; v < g.getVertexCount(); v++) {
-            for (Integer w : g.adj(v)) {
-                if (marked[w]) {
+            // 每个顶点的相邻顶点单独标记，clear为O(1)
+            ws.clear();
+            for (int i = 0, n = g.degree(v); i < n; i++) {
+                int w = g.adj(v, i);
+                if (ws.isMarked(w)) {
                     cycle = new Stack<>();
                     cycle.push(v);
                     cycle.push(w);
                     cycle.push(v);
                     return true;
                 }
-                marked[w] = true;
-            }
-
-            for (Integer w : g.adj(v)) {
-                marked[w] = false;
+                ws.mark(w);
             }
         }
         return false;
     }
 
-    private boolean hasSelfLoop(Graph g) {
+    private boolean hasSelfLoop(UndirectedGraph g) {
         for (int v = 0; v < g.getVertexCount(); v++) {
-            for (Integer w : g.adj(v)) {
+            for (int i = 0, n = g.degree(v); i < n; i++) {
+                int w = g.adj(v, i);
                 cycle = new Stack<>();
                 cycle.push(v);
                 cycle.push(v);
@@ -68,26 +99,6 @@ public class Cycle {
         return cycle;
     }
 
-    private void dfs(Graph g, int u, int v) {
-        marked[v] = true;
-        for (Integer w : g.adj(v)) {
-            // 已找到环
-            if (cycle != null) return;
-
-            if (!marked[w]) {
-                edgeTo[w] = v;
-                dfs(g, v, w);
-            } else if (w != u) { // 检查环，但忽略指向 v 的边的反向(忽略v->u)
-                cycle = new Stack<>();
-                for (int x = v; x != w; x = edgeTo[x]) {
-                    cycle.push(x);
-                }
-                cycle.push(w);
-                cycle.push(v);
-            }
-        }
-    }
-
     public static void main(String[] args) {
         URL url = Cycle.class.getResource("/graph/tinyG.txt");
         Graph g = new Graph(new In(url));
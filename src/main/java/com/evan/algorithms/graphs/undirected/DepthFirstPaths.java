@@ -4,39 +4,40 @@ import com.evan.algorithms.datastructures.Stack;
 import com.evan.algorithms.io.In;
 
 import java.net.URL;
+import java.util.Arrays;
 
 public class DepthFirstPaths {
-    private final boolean[] marked;
-    private final int[] edgeTo; // edgeTo[v] = s-v路径的最后一条边
+    private final int[] edgeTo; // edgeTo[v] = s-v路径的最后一条边，v不可达时为-1
     private final int s; // 起点
 
-    public DepthFirstPaths(Graph g, int s) {
-        marked = new boolean[g.getVertexCount()];
+    public DepthFirstPaths(UndirectedGraph g, int s) {
         edgeTo = new int[g.getVertexCount()];
         this.s = s;
         validateVertex(s);
-        dfs(g, s);
-    }
-
-    private void validateVertex(int v) {
-        if (v < 0 || v >= marked.length) {
-            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (marked.length - 1));
+        Arrays.fill(edgeTo, -1);
+        edgeTo[s] = s;
+        TraversalWorkspace ws = TraversalWorkspace.acquire(g.getVertexCount());
+        try {
+            new DepthFirstTraversal(g, ws).run(s, new DepthFirstTraversal.Visitor() {
+                @Override
+                public void preorder(int v, int parent) {
+                    if (parent >= 0) edgeTo[v] = parent;
+                }
+            });
+        } finally {
+            ws.release();
         }
     }
 
-    private void dfs(Graph g, int v) {
-        marked[v] = true;
-        for (Integer w : g.adj(v)) {
-            if (!marked[w]) {
-                edgeTo[w] = v;
-                dfs(g, w);
-            }
+    private void validateVertex(int v) {
+        if (v < 0 || v >= edgeTo.length) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (edgeTo.length - 1));
         }
     }
 
     public boolean hasPathTo(int v) {
         validateVertex(v);
-        return marked[v];
+        return edgeTo[v] != -1;
     }
 
     public Iterable<Integer> pathTo(int v) {
@@ -8,18 +8,19 @@ public class DepthFirstSearch {
     private final boolean[] marked;
     private int count; // 与起点相连的顶点数量
 
-    public DepthFirstSearch(Graph g, int s) {
+    public DepthFirstSearch(UndirectedGraph g, int s) {
         marked = new boolean[g.getVertexCount()];
         validateVertex(s);
         System.out.print("visit order： ");
         dfs(g, s);
     }
 
-    private void dfs(Graph g, int v) {
+    private void dfs(UndirectedGraph g, int v) {
         count++;
         marked[v] = true;
         System.out.print(v + " ");
-        for (int w : g.adj(v)) {
+        for (int i = 0, n = g.degree(v); i < n; i++) {
+            int w = g.adj(v, i);
             if (!marked[w]) {
                 dfs(g, w);
             }
@@ -1,39 +1,33 @@
 package com.evan.algorithms.graphs.undirected;
 
-import com.evan.algorithms.datastructures.Stack;
+import com.evan.algorithms.datastructures.IntStack;
 import com.evan.algorithms.io.In;
 
 import java.net.URL;
-import java.util.Iterator;
 
 public class DepthFirstSearchIterative {
     private final boolean[] marked;
     private int count;
 
-    public DepthFirstSearchIterative(Graph g, int s) {
+    public DepthFirstSearchIterative(UndirectedGraph g, int s) {
         marked = new boolean[g.getVertexCount()];
         dfs(g, s);
     }
 
-    private void dfs(Graph g, int s) {
-        Stack<Integer> stack = new Stack<>();
+    private void dfs(UndirectedGraph g, int s) {
+        IntStack stack = new IntStack();
         stack.push(s);
         marked[s] = true;
         count++;
         System.out.print("visit order: " + s + " ");
 
-        Iterator<Integer>[] adjacentIterators = (Iterator<Integer>[]) new Iterator[g.getVertexCount()];
-
-        for (int v = 0; v < adjacentIterators.length; v++) {
-            if (g.adj(v) != null) {
-                adjacentIterators[v] = g.adj(v).iterator();
-            }
-        }
+        // cursor[v] = v下一个要检查的相邻顶点的下标，代替每个顶点一个的迭代器
+        int[] cursor = new int[g.getVertexCount()];
 
         while (!stack.isEmpty()) {
-            Integer v = stack.peek();
-            if (adjacentIterators[v].hasNext()) {
-                Integer w = adjacentIterators[v].next();
+            int v = stack.peek();
+            if (cursor[v] < g.degree(v)) {
+                int w = g.adj(v, cursor[v]++);
                 if (!marked[w]) {
                     count++;
                     stack.push(w);
@@ -8,27 +8,28 @@ import java.net.URL;
  * 每一个连通图都存在一个顶点，其移除（包括所有相邻的边）后不会使图变得不连通，找出这个顶点
  */
 public class DepthFirstSearchRemoveVertex {
-    private final boolean[] marked;
     private int vertexThatCanBeRemoved;
 
-    public DepthFirstSearchRemoveVertex(Graph g, int s) {
-        marked = new boolean[g.getVertexCount()];
-        dfs(g, s);
-    }
-
-    private void dfs(Graph g, int v) {
-        marked[v] = true;
-        boolean allNeighboursMarked = true;
-
-        for (int w : g.adj(v)) {
-            if (!marked[w]) {
-                allNeighboursMarked = false;
-                dfs(g, w);
-            }
-        }
-
-        if (allNeighboursMarked) {
-            vertexThatCanBeRemoved = v;
+    public DepthFirstSearchRemoveVertex(UndirectedGraph g, int s) {
+        boolean[] hasChild = new boolean[g.getVertexCount()];
+        TraversalWorkspace ws = TraversalWorkspace.acquire(g.getVertexCount());
+        try {
+            new DepthFirstTraversal(g, ws).run(s, new DepthFirstTraversal.Visitor() {
+                @Override
+                public void preorder(int v, int parent) {
+                    if (parent >= 0) hasChild[parent] = true;
+                }
+
+                @Override
+                public void postorder(int v, int parent) {
+                    // v的相邻顶点在访问v之前都已被标记，v是dfs树的叶子
+                    if (!hasChild[v]) {
+                        vertexThatCanBeRemoved = v;
+                    }
+                }
+            });
+        } finally {
+            ws.release();
         }
     }
 
@@ -0,0 +1,117 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.io.In;
+
+import java.net.URL;
+
+/**
+ * 非递归的深度优先遍历，用int数组保存当前路径，cursor[v]记录v下一个要检查的相邻顶点的下标，
+ * 因此遍历的深度不受线程栈大小的限制，遍历过程中也不分配对象。
+ * 访问标记和这两个数组都来自{@link TraversalWorkspace}，重复遍历时不再分配数组。
+ * 顶点和边的访问顺序与递归实现完全相同，通过{@link Visitor}的回调实现具体的算法
+ */
+public class DepthFirstTraversal {
+    // 占用的工作区数组
+    private static final int PATH = TraversalWorkspace.INT_0;
+    private static final int CURSOR = TraversalWorkspace.INT_1;
+
+    private final UndirectedGraph g;
+    private final TraversalWorkspace ws;
+    private final int[] path; // 从起点到当前顶点的路径，相当于递归时的调用栈
+    private final int[] cursor;
+
+    public interface Visitor {
+        // 首次访问v，parent为树中v的父节点，起点的parent为-1
+        default void preorder(int v, int parent) {
+        }
+
+        // 检查边v-w时w已被访问，包括指回父节点的边
+        default void nonTreeEdge(int v, int w) {
+        }
+
+        // v的所有相邻顶点都已检查完毕
+        default void postorder(int v, int parent) {
+        }
+
+        // 返回true时立即结束本次遍历
+        default boolean done() {
+            return false;
+        }
+    }
+
+    // ws由调用者持有，其中的标记在多次遍历之间共享，遍历会标记所有访问到的顶点；
+    // 遍历占用ws的INT_0和INT_1两个int数组
+    public DepthFirstTraversal(UndirectedGraph g, TraversalWorkspace ws) {
+        if (ws.vertexCount() != g.getVertexCount())
+            throw new IllegalArgumentException("workspace size does not match number of vertices");
+        this.g = g;
+        this.ws = ws;
+        path = ws.reserve(PATH);
+        cursor = ws.reserve(CURSOR);
+    }
+
+    // 从s开始遍历所有未被标记的可达顶点，s已被标记时不做任何事
+    public void run(int s, Visitor visitor) {
+        validateVertex(s);
+        if (ws.isMarked(s)) return;
+
+        int top = 0;
+        path[0] = s;
+        cursor[s] = 0;
+        ws.mark(s);
+        visitor.preorder(s, -1);
+
+        while (top >= 0) {
+            if (visitor.done()) return;
+
+            int v = path[top];
+            if (cursor[v] < g.degree(v)) {
+                int w = g.adj(v, cursor[v]++);
+                if (!ws.isMarked(w)) {
+                    ws.mark(w);
+                    cursor[w] = 0;
+                    path[++top] = w;
+                    visitor.preorder(w, v);
+                } else {
+                    visitor.nonTreeEdge(v, w);
+                }
+            } else {
+                top--;
+                visitor.postorder(v, top >= 0 ? path[top] : -1);
+            }
+        }
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= g.getVertexCount()) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (g.getVertexCount() - 1));
+        }
+    }
+
+    public static void main(String[] args) {
+        URL url = DepthFirstTraversal.class.getResource("/graph/tinyG.txt");
+        Graph g = new Graph(new In(url));
+        TraversalWorkspace ws = TraversalWorkspace.acquire(g.getVertexCount());
+        try {
+            new DepthFirstTraversal(g, ws).run(0, new Visitor() {
+                @Override
+                public void preorder(int v, int parent) {
+                    System.out.print(v + " ");
+                }
+            });
+        } finally {
+            ws.release();
+        }
+        System.out.println();
+
+        // 递归实现在这样长的路径上会栈溢出
+        int length = 2000000;
+        Graph chain = new Graph(length);
+        for (int v = 0; v + 1 < length; v++) {
+            chain.addEdge(v, v + 1);
+        }
+        CC cc = new CC(chain);
+        System.out.println(cc.count() + " component of size " + cc.size(0));
+        System.out.println("has cycle: " + new Cycle(chain).hasCycle());
+    }
+}
@@ -0,0 +1,202 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.datastructures.Stack;
+import com.evan.algorithms.io.In;
+import com.evan.algorithms.io.StdRandom;
+
+import java.net.URL;
+import java.util.Arrays;
+
+/**
+ * 方向优化的广度优先搜索(Beamer et al.)，提供与{@link BreadthFirstPaths}相同的API。
+ * 边界较小时自顶向下扩展：检查边界中每个顶点的相邻顶点；
+ * 边界较大时自底向上扩展：每个未访问的顶点检查是否有相邻顶点位于边界中，找到一个即可停止。
+ * 低直径图的中间几层边界覆盖了大部分顶点，此时自底向上可以跳过大量无用的边检查
+ */
+public class DirectionOptimizingBreadthFirstPaths {
+    private static final int INF = Integer.MAX_VALUE;
+    // 边界的边数超过未访问顶点边数的1/ALPHA时切换为自底向上
+    private static final int ALPHA = 14;
+    // 边界的顶点数少于顶点总数的1/BETA时切换回自顶向下
+    private static final int BETA = 24;
+
+    private final boolean[] marked;
+    private final int[] edgeTo; // edgeTo[v] = s-v的路径的最后一条边
+    private final int[] distTo; // distTo[v] = s-v的最短路径长度
+    private long edgesExamined; // 检查过的边数(每条边的每个方向计一次)
+    private int bottomUpSteps; // 自底向上扩展的层数
+
+    public DirectionOptimizingBreadthFirstPaths(UndirectedGraph g, int s) {
+        marked = new boolean[g.getVertexCount()];
+        edgeTo = new int[g.getVertexCount()];
+        distTo = new int[g.getVertexCount()];
+        validateVertex(s);
+        bfs(g, s);
+    }
+
+    private void bfs(UndirectedGraph g, int s) {
+        int n = g.getVertexCount();
+        Arrays.fill(distTo, INF);
+        int[] frontier = new int[n];
+        int[] next = new int[n];
+        boolean[] inFrontier = new boolean[n];
+
+        long unexploredEdges = 0;
+        for (int v = 0; v < n; v++) {
+            unexploredEdges += g.degree(v);
+        }
+        frontier[0] = s;
+        int size = 1;
+        marked[s] = true;
+        distTo[s] = 0;
+        long frontierEdges = g.degree(s);
+        unexploredEdges -= frontierEdges;
+
+        boolean bottomUp = false;
+        int previousSize = 0;
+        for (int depth = 0; size > 0; depth++) {
+            if (!bottomUp) {
+                bottomUp = frontierEdges > unexploredEdges / ALPHA && size > previousSize;
+            } else {
+                bottomUp = !(size < n / BETA && size < previousSize);
+            }
+
+            int nextSize;
+            if (bottomUp) {
+                nextSize = bottomUpStep(g, depth, frontier, size, next, inFrontier);
+                bottomUpSteps++;
+            } else {
+                nextSize = topDownStep(g, frontier, size, next);
+            }
+
+            frontierEdges = 0;
+            for (int i = 0; i < nextSize; i++) {
+                frontierEdges += g.degree(next[i]);
+            }
+            unexploredEdges -= frontierEdges;
+
+            int[] t = frontier;
+            frontier = next;
+            next = t;
+            previousSize = size;
+            size = nextSize;
+        }
+    }
+
+    private int topDownStep(UndirectedGraph g, int[] frontier, int size, int[] next) {
+        int nextSize = 0;
+        for (int k = 0; k < size; k++) {
+            int v = frontier[k];
+            for (int i = 0, n = g.degree(v); i < n; i++) {
+                int w = g.adj(v, i);
+                edgesExamined++;
+                if (!marked[w]) {
+                    marked[w] = true;
+                    edgeTo[w] = v;
+                    distTo[w] = distTo[v] + 1;
+                    next[nextSize++] = w;
+                }
+            }
+        }
+        return nextSize;
+    }
+
+    private int bottomUpStep(UndirectedGraph g, int depth, int[] frontier, int size, int[] next, boolean[] inFrontier) {
+        for (int k = 0; k < size; k++) {
+            inFrontier[frontier[k]] = true;
+        }
+        int nextSize = 0;
+        for (int v = 0; v < marked.length; v++) {
+            if (marked[v]) continue;
+            for (int i = 0, n = g.degree(v); i < n; i++) {
+                int w = g.adj(v, i);
+                edgesExamined++;
+                if (inFrontier[w]) {
+                    marked[v] = true;
+                    edgeTo[v] = w;
+                    distTo[v] = depth + 1;
+                    next[nextSize++] = v;
+                    break;
+                }
+            }
+        }
+        for (int k = 0; k < size; k++) {
+            inFrontier[frontier[k]] = false;
+        }
+        return nextSize;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= marked.length) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (marked.length - 1));
+        }
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return marked[v];
+    }
+
+    public int distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    public Iterable<Integer> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) {
+            return null;
+        }
+        Stack<Integer> path = new Stack<>();
+        int x;
+        for (x = v; distTo[x] != 0; x = edgeTo[x]) {
+            path.push(x);
+        }
+        path.push(x);
+        return path;
+    }
+
+    public long edgesExamined() {
+        return edgesExamined;
+    }
+
+    public int bottomUpSteps() {
+        return bottomUpSteps;
+    }
+
+    public static void main(String[] args) {
+        URL url = DirectionOptimizingBreadthFirstPaths.class.getResource("/graph/tinyCG.txt");
+        Graph g = new Graph(new In(url));
+        int s = 0;
+        DirectionOptimizingBreadthFirstPaths bfs = new DirectionOptimizingBreadthFirstPaths(g, s);
+        for (int v = 0; v < g.getVertexCount(); v++) {
+            if (bfs.hasPathTo(v)) {
+                System.out.printf("%d to %d (%d):  ", s, v, bfs.distTo(v));
+                for (int x : bfs.pathTo(v)) {
+                    if (x == s) System.out.print(x);
+                    else System.out.print("-" + x);
+                }
+                System.out.println();
+            } else {
+                System.out.printf("%d to %d (-):  not connected\n", s, v);
+            }
+        }
+
+        // 随机图的直径很小，中间几层几乎覆盖所有顶点
+        int vertexCount = 200000;
+        StdRandom.setSeed(42);
+        Graph random = new Graph(vertexCount);
+        for (int i = 0; i < 8 * vertexCount; i++) {
+            random.addEdge(StdRandom.uniformInt(vertexCount), StdRandom.uniformInt(vertexCount));
+        }
+        BreadthFirstPaths expected = new BreadthFirstPaths(random, 0);
+        DirectionOptimizingBreadthFirstPaths actual = new DirectionOptimizingBreadthFirstPaths(random, 0);
+        for (int v = 0; v < vertexCount; v++) {
+            if (expected.distTo(v) != actual.distTo(v))
+                throw new IllegalStateException("distTo(" + v + ") mismatch");
+        }
+        System.out.println("top-down edges examined: " + 2L * random.getEdgeCount());
+        System.out.println("direction-optimizing edges examined: " + actual.edgesExamined()
+                + " (" + actual.bottomUpSteps() + " bottom-up steps)");
+    }
+}
@@ -1,15 +1,14 @@
 package com.evan.algorithms.graphs.undirected;
 
 import com.evan.algorithms.datastructures.Bag;
+import com.evan.algorithms.datastructures.IntBag;
 import com.evan.algorithms.io.In;
 
 import java.net.URL;
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.NoSuchElementException;
 
 // 无向图
-public class Graph {
+public class Graph implements UndirectedGraph {
     private static final String NEWLINE = System.lineSeparator();
 
     private final int vertexCount;
@@ -17,36 +16,39 @@ public class Graph {
     // 数组不能动态地添加或删除元素，也就不支持添加和删除顶点
     // 为了支持添加和删除顶点、禁止平行边、删除边，可以使用符号表和set
     // 如Map<String, Set<String>> adjacencySet;
-    private final Bag<Integer>[] adj;
+    // 使用IntBag存储相邻顶点，避免为每条边分配节点和装箱的Integer
+    private final IntBag[] adj;
+    private Bag<EdgeListener> listeners; // 没有监听器时为null
+
+    // 每次addEdge之后被调用，用于增量维护依赖于边的结构，如IncrementalCC
+    public interface EdgeListener {
+        void edgeAdded(int v, int w);
+    }
 
     public Graph(int vertexCount) {
         if (vertexCount < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
         this.vertexCount = vertexCount;
         this.edgeCount = 0;
-        adj = (Bag<Integer>[]) new Bag[vertexCount];
+        adj = new IntBag[vertexCount];
         for (int v = 0; v < vertexCount; v++) {
-            adj[v] = new Bag<>();
+            adj[v] = new IntBag();
         }
     }
 
+    // edges[2i]-edges[2i+1]为第i条边，共edgeCount条，添加顺序与逐条调用addEdge相同
+    Graph(int vertexCount, int[] edges, int edgeCount) {
+        this(vertexCount);
+        addEdges(edges, edgeCount);
+    }
+
     public Graph(Graph g) {
         this.vertexCount = g.getVertexCount();
         this.edgeCount = g.getEdgeCount();
         if (vertexCount < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
 
-        adj = (Bag<Integer>[]) new Bag[vertexCount];
+        adj = new IntBag[vertexCount];
         for (int v = 0; v < vertexCount; v++) {
-            adj[v] = new Bag<>();
-        }
-
-        for (int v = 0; v < g.getVertexCount(); v++) {
-            Deque<Integer> reverse = new ArrayDeque<>();
-            for (int w : g.adj[v]) {
-                reverse.push(w);
-            }
-            for (int w : reverse) {
-                adj[v].add(w);
-            }
+            adj[v] = new IntBag(g.adj[v]);
         }
     }
 
@@ -56,12 +58,16 @@ public class Graph {
             this.vertexCount = in.readInt();
             if (vertexCount < 0)
                 throw new IllegalArgumentException("number of vertices in a Graph must be non-negative");
-            adj = (Bag<Integer>[]) new Bag[vertexCount];
+            adj = new IntBag[vertexCount];
             for (int v = 0; v < vertexCount; v++) {
-                adj[v] = new Bag<>();
+                adj[v] = new IntBag();
             }
             int E = in.readInt();
             if (E < 0) throw new IllegalArgumentException("number of edges in a Graph must be non-negative");
+            if (in.supportsParallelRead()) {
+                addEdges(in.readAllInts(), E);
+                return;
+            }
             for (int i = 0; i < E; i++) {
                 int v = in.readInt();
                 int w = in.readInt();
@@ -74,6 +80,22 @@ public class Graph {
         }
     }
 
+    // 边表已经读入int数组：先统计度数，按度数预分配每个IntBag，再按原顺序添加边
+    private void addEdges(int[] edges, int E) {
+        if (edges.length < 2L * E)
+            throw new IllegalArgumentException("invalid input format in Graph constructor");
+        int[] degree = new int[vertexCount];
+        for (int i = 0; i < 2 * E; i++) {
+            validateVertex(edges[i]);
+            degree[edges[i]]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            adj[v] = new IntBag(degree[v]);
+        }
+        for (int i = 0; i < 2 * E; i += 2) {
+            addEdge(edges[i], edges[i + 1]);
+        }
+    }
 
     public int getVertexCount() {
         return vertexCount;
@@ -94,6 +116,43 @@ public class Graph {
         edgeCount++;
         adj[v].add(w);
         adj[w].add(v);
+        if (listeners != null) {
+            for (EdgeListener listener : listeners) {
+                listener.edgeAdded(v, w);
+            }
+        }
+    }
+
+    public void addEdgeListener(EdgeListener listener) {
+        if (listener == null) throw new IllegalArgumentException("argument is null");
+        if (listeners == null) listeners = new Bag<>();
+        listeners.add(listener);
+    }
+
+    // 删除一个监听器(按引用比较)，不存在时返回false。
+    // Bag不支持删除，监听器很少，因此重建一个不含它的Bag，其余监听器的顺序不变；
+    // 正在通知的addEdge仍遍历旧的Bag，监听器可以在edgeAdded中删除自己
+    public boolean removeEdgeListener(EdgeListener listener) {
+        if (listener == null) throw new IllegalArgumentException("argument is null");
+        if (listeners == null) return false;
+        EdgeListener[] kept = new EdgeListener[listeners.size()];
+        int n = 0;
+        boolean removed = false;
+        for (EdgeListener l : listeners) {
+            if (!removed && l == listener) removed = true;
+            else kept[n++] = l;
+        }
+        if (!removed) return false;
+        Bag<EdgeListener> rest = null;
+        if (n > 0) {
+            rest = new Bag<>();
+            // Bag按加入的相反顺序遍历，倒序加入以保持原来的顺序
+            for (int i = n - 1; i >= 0; i--) {
+                rest.add(kept[i]);
+            }
+        }
+        listeners = rest;
+        return true;
     }
 
     public Iterable<Integer> adj(int v) {
@@ -101,6 +160,11 @@ public class Graph {
         return adj[v];
     }
 
+    public int adj(int v, int i) {
+        validateVertex(v);
+        return adj[v].get(i);
+    }
+
     public int degree(int v) {
         validateVertex(v);
         return adj[v].size();
@@ -112,8 +176,8 @@ public class Graph {
                 .append(edgeCount).append(" edges ").append(NEWLINE);
         for (int v = 0; v < vertexCount; v++) {
             s.append(v).append(": ");
-            for (int w : adj[v]) {
-                s.append(w).append(" ");
+            for (int i = 0; i < adj[v].size(); i++) {
+                s.append(adj[v].get(i)).append(" ");
             }
             s.append(NEWLINE);
         }
@@ -0,0 +1,416 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.io.In;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 大规模随机图的生成器：Erdős–Rényi G(n, p)、R-MAT和Barabási–Albert(优先连接)。
+ * 要生成的边被分成固定大小的块，每块的随机数只由种子和块号决定，各块在所有核上并行生成，
+ * 再按块号顺序拼接，因此同样的种子在任何线程数下都得到完全相同的图。
+ * 结果可以是平坦的边数组、{@link Graph}、{@link CsrGraph}，也可以分批流式写入Graph(In)读取的文本格式，
+ * 或者写成{@link MappedGraph}的二进制格式
+ */
+public abstract class GraphGenerator {
+    private static final int BLOCK_EDGES = 1 << 16; // 每块平均生成的边数
+    private static final int MAX_BLOCKS = 1 << 24;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final int EDGE_COUNT_WIDTH = 20; // 文本文件头中边数的宽度，写完所有边后再回填
+
+    private final int vertexCount;
+    private final long seed;
+
+    private GraphGenerator(int vertexCount, long seed) {
+        this.vertexCount = vertexCount;
+        this.seed = seed;
+    }
+
+    /**
+     * G(n, p)：每对不同的顶点之间以概率p独立地连一条边。
+     * 顶点对按下标排成一列，用几何分布直接跳到下一条边(Batagelj-Brandes)，耗时与边数成正比，而不是n^2
+     */
+    public static GraphGenerator erdosRenyi(int vertexCount, double p, long seed) {
+        if (vertexCount < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        if (!(p >= 0 && p <= 1)) throw new IllegalArgumentException("probability must be between 0 and 1");
+        return new ErdosRenyi(vertexCount, p, seed);
+    }
+
+    /**
+     * R-MAT(递归矩阵)：2^scale个顶点，每条边从邻接矩阵的四个象限中按概率a、b、c、1-a-b-c递归选择一个，
+     * 重复scale次得到端点。a较大时度数分布接近幂律，Graph500使用a=0.57, b=c=0.19
+     */
+    public static GraphGenerator rmat(int scale, long edgeCount, double a, double b, double c, long seed) {
+        if (scale < 0 || scale > 30) throw new IllegalArgumentException("scale must be between 0 and 30");
+        if (edgeCount < 0) throw new IllegalArgumentException("Number of edges must be non-negative");
+        if (!(a >= 0 && b >= 0 && c >= 0 && a + b + c <= 1))
+            throw new IllegalArgumentException("invalid quadrant probabilities");
+        return new RMat(scale, edgeCount, a, b, c, seed);
+    }
+
+    /**
+     * Barabási–Albert：顶点v依次加入，各带edgesPerVertex条边，另一端点被选中的概率与其当前度数成正比。
+     * 第i条边的另一端点取边列表中随机位置r < 2i上的顶点，r指向之前某条边的另一端点时沿着它继续查找，
+     * 每条边的随机数由种子和边的编号决定，所以各条边可以独立并行地生成(Sanders-Schulz)。
+     * 允许自环和平行边
+     */
+    public static GraphGenerator barabasiAlbert(int vertexCount, int edgesPerVertex, long seed) {
+        if (vertexCount < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        if (edgesPerVertex < 1) throw new IllegalArgumentException("edges per vertex must be positive");
+        return new BarabasiAlbert(vertexCount, edgesPerVertex, seed);
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    // 块数与线程数无关，保证结果可以重现
+    abstract int blockCount();
+
+    // 生成第block块的边，random只由种子和块号决定
+    abstract void generate(int block, SplittableRandom random, EdgeBuffer out);
+
+    private EdgeBuffer block(int block) {
+        EdgeBuffer out = new EdgeBuffer();
+        generate(block, new SplittableRandom(mix(seed + GOLDEN_GAMMA * (block + 1))), out);
+        return out;
+    }
+
+    // 第i条边为edges[2i]-edges[2i + 1]
+    public int[] edges() {
+        int blocks = blockCount();
+        EdgeBuffer[] parts = blocks(0, blocks);
+        long total = 0;
+        int[] offsets = new int[blocks + 1];
+        for (int i = 0; i < blocks; i++) {
+            total += parts[i].size;
+            if (total > Integer.MAX_VALUE - 8)
+                throw new IllegalStateException("too many edges for an array, use write(Path) instead");
+            offsets[i + 1] = (int) total;
+        }
+        int[] edges = new int[(int) total];
+        ForkJoinPool.commonPool().submit(() -> IntStream.range(0, blocks).parallel().forEach(i ->
+                System.arraycopy(parts[i].edges, 0, edges, offsets[i], parts[i].size))).join();
+        return edges;
+    }
+
+    public Graph graph() {
+        int[] edges = edges();
+        return new Graph(vertexCount, edges, edges.length / 2);
+    }
+
+    public CsrGraph csrGraph() {
+        int[] edges = edges();
+        return new CsrGraph(vertexCount, edges, edges.length / 2);
+    }
+
+    /**
+     * 写成MappedGraph的二进制格式。边生成两遍，第一遍统计度数，第二遍把相邻顶点直接写入文件的映射，
+     * 每遍都像write(Path)一样分批并行生成，堆上只有一批块和vertexCount + 1个long，与边的总数无关。
+     * 结果与MappedGraph.write(csrGraph(), path)相同，边数不能超过Integer.MAX_VALUE
+     */
+    public void writeMapped(Path path) {
+        MappedGraph.write(vertexCount, this::forEachBlock, path);
+    }
+
+    // 按块号顺序把每块的边交给sink，每次并行生成一批
+    private void forEachBlock(MappedGraph.EdgeSink sink) {
+        int blocks = blockCount();
+        int batch = 4 * ForkJoinPool.commonPool().getParallelism();
+        for (int from = 0; from < blocks; from += batch) {
+            for (EdgeBuffer part : blocks(from, Math.min(from + batch, blocks))) {
+                sink.accept(part.edges, part.size);
+            }
+        }
+    }
+
+    private EdgeBuffer[] blocks(int from, int to) {
+        return ForkJoinPool.commonPool().submit(() ->
+                IntStream.range(from, to).parallel().mapToObj(this::block).toArray(EdgeBuffer[]::new)).join();
+    }
+
+    /**
+     * 写成Graph(In)读取的文本格式：顶点数、边数，然后每行一条边，返回边数。
+     * 每次并行生成一批块并转换成文本，再按顺序写入，内存占用只与一批块的大小有关，与边的总数无关
+     */
+    public long write(Path path) {
+        int blocks = blockCount();
+        int batch = 4 * ForkJoinPool.commonPool().getParallelism();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel, header(0));
+            long edgeCount = 0;
+            for (int from = 0; from < blocks; from += batch) {
+                EdgeBuffer[] parts = texts(from, Math.min(from + batch, blocks));
+                for (EdgeBuffer part : parts) {
+                    write(channel, ByteBuffer.wrap(part.text, 0, part.textLength));
+                    edgeCount += part.size / 2;
+                }
+            }
+            // 边数在生成之前未知，文件头预留了固定宽度，最后回填
+            channel.position(0);
+            write(channel, header(edgeCount));
+            return edgeCount;
+        }
+        catch (IOException ioe) {
+            throw new IllegalArgumentException("Could not write " + path, ioe);
+        }
+    }
+
+    private EdgeBuffer[] texts(int from, int to) {
+        return ForkJoinPool.commonPool().submit(() -> IntStream.range(from, to).parallel().mapToObj(b -> {
+            EdgeBuffer part = block(b);
+            part.toText();
+            return part;
+        }).toArray(EdgeBuffer[]::new)).join();
+    }
+
+    private ByteBuffer header(long edgeCount) {
+        String header = vertexCount + "\n" + String.format("%" + EDGE_COUNT_WIDTH + "d", edgeCount) + "\n";
+        return ByteBuffer.wrap(header.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // SplitMix64的finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // 一块生成的边，写文件时再转换成文本
+    static final class EdgeBuffer {
+        private int[] edges = new int[2 * BLOCK_EDGES];
+        private int size;
+        private byte[] text;
+        private int textLength;
+
+        void add(int v, int w) {
+            if (size + 2 > edges.length) {
+                edges = Arrays.copyOf(edges, edges.length + (edges.length >> 1));
+            }
+            edges[size++] = v;
+            edges[size++] = w;
+        }
+
+        // 每行"v w\n"，int最多11个字符
+        void toText() {
+            text = new byte[size / 2 * 24];
+            int k = 0;
+            for (int i = 0; i < size; i += 2) {
+                k = appendInt(edges[i], k);
+                text[k++] = ' ';
+                k = appendInt(edges[i + 1], k);
+                text[k++] = '\n';
+            }
+            textLength = k;
+            edges = null;
+        }
+
+        // 顶点编号非负
+        private int appendInt(int x, int k) {
+            int digits = 1;
+            for (int y = x; y >= 10; y /= 10) {
+                digits++;
+            }
+            for (int i = k + digits - 1; i >= k; i--) {
+                text[i] = (byte) ('0' + x % 10);
+                x /= 10;
+            }
+            return k + digits;
+        }
+    }
+
+    private static final class ErdosRenyi extends GraphGenerator {
+        private final double p;
+        private final long pairs; // 顶点对w < v按v(v - 1) / 2 + w编号
+        private final int blocks;
+
+        ErdosRenyi(int vertexCount, double p, long seed) {
+            super(vertexCount, seed);
+            this.p = p;
+            pairs = (long) vertexCount * (vertexCount - 1) / 2;
+            double expected = p * pairs;
+            blocks = (int) Math.max(1, Math.min(Math.min(expected / BLOCK_EDGES, MAX_BLOCKS), pairs));
+        }
+
+        @Override
+        int blockCount() {
+            return blocks;
+        }
+
+        // 第block块负责编号在[start(block), start(block + 1))中的顶点对
+        private long start(int block) {
+            if (block == blocks) return pairs;
+            return (long) ((double) pairs * block / blocks);
+        }
+
+        @Override
+        void generate(int block, SplittableRandom random, EdgeBuffer out) {
+            if (p == 0) return;
+            long end = start(block + 1);
+            long index = start(block) - 1;
+            double logQ = Math.log1p(-p);
+            int v = 0, w = 0;
+            boolean decoded = false;
+            while (true) {
+                // 下一条边之前跳过的顶点对个数服从几何分布
+                long skip = p == 1 ? 0 : (long) (Math.log(1 - random.nextDouble()) / logQ);
+                if (skip >= end - index - 1) return;
+                index += skip + 1;
+                if (decoded && skip < v) {
+                    w += (int) skip + 1;
+                    if (w >= v) {
+                        w -= v;
+                        v++;
+                    }
+                } else {
+                    v = row(index);
+                    w = (int) (index - (long) v * (v - 1) / 2);
+                    decoded = true;
+                }
+                out.add(v, w);
+            }
+        }
+
+        // 编号为index的顶点对所在的行v，满足v(v - 1) / 2 <= index < v(v + 1) / 2
+        private static int row(long index) {
+            long v = (long) ((1 + Math.sqrt(1 + 8.0 * index)) / 2);
+            while (v * (v - 1) / 2 > index) v--;
+            while (v * (v + 1) / 2 <= index) v++;
+            return (int) v;
+        }
+    }
+
+    private static final class RMat extends GraphGenerator {
+        private final int scale;
+        private final long edgeCount;
+        private final double a, ab, abc; // 累积概率
+
+        RMat(int scale, long edgeCount, double a, double b, double c, long seed) {
+            super(1 << scale, seed);
+            this.scale = scale;
+            this.edgeCount = edgeCount;
+            this.a = a;
+            this.ab = a + b;
+            this.abc = a + b + c;
+        }
+
+        @Override
+        int blockCount() {
+            long blocks = (edgeCount + BLOCK_EDGES - 1) / BLOCK_EDGES;
+            if (blocks > Integer.MAX_VALUE) throw new IllegalArgumentException("too many edges: " + edgeCount);
+            return (int) Math.max(1, blocks);
+        }
+
+        @Override
+        void generate(int block, SplittableRandom random, EdgeBuffer out) {
+            long from = (long) block * BLOCK_EDGES;
+            long count = Math.min(BLOCK_EDGES, edgeCount - from);
+            for (long i = 0; i < count; i++) {
+                int v = 0, w = 0;
+                for (int bit = scale - 1; bit >= 0; bit--) {
+                    double r = random.nextDouble();
+                    if (r >= abc) {
+                        v |= 1 << bit;
+                        w |= 1 << bit;
+                    } else if (r >= ab) {
+                        v |= 1 << bit;
+                    } else if (r >= a) {
+                        w |= 1 << bit;
+                    }
+                }
+                out.add(v, w);
+            }
+        }
+    }
+
+    private static final class BarabasiAlbert extends GraphGenerator {
+        private final int edgesPerVertex;
+        private final long edgeCount;
+
+        BarabasiAlbert(int vertexCount, int edgesPerVertex, long seed) {
+            super(vertexCount, seed);
+            this.edgesPerVertex = edgesPerVertex;
+            this.edgeCount = (long) vertexCount * edgesPerVertex;
+        }
+
+        @Override
+        int blockCount() {
+            long blocks = (edgeCount + BLOCK_EDGES - 1) / BLOCK_EDGES;
+            if (blocks > Integer.MAX_VALUE) throw new IllegalArgumentException("too many edges: " + edgeCount);
+            return (int) Math.max(1, blocks);
+        }
+
+        @Override
+        void generate(int block, SplittableRandom random, EdgeBuffer out) {
+            long from = (long) block * BLOCK_EDGES;
+            long to = Math.min(from + BLOCK_EDGES, edgeCount);
+            for (long i = from; i < to; i++) {
+                out.add((int) (i / edgesPerVertex), target(i));
+            }
+        }
+
+        // 边列表中第2i个位置是第i条边新加入的顶点，第2i + 1个位置是它连接的顶点
+        private int target(long i) {
+            while (i > 0) {
+                long r = (mix(seed() ^ mix(i)) >>> 1) % (2 * i);
+                if ((r & 1) == 0) return (int) (r / 2 / edgesPerVertex);
+                i = r / 2;
+            }
+            return 0;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        GraphGenerator[] generators = {
+                erdosRenyi(100000, 8.0 / 100000, 42),
+                rmat(17, 800000, 0.57, 0.19, 0.19, 42),
+                barabasiAlbert(100000, 4, 42),
+        };
+        String[] names = {"Erdos-Renyi", "R-MAT", "Barabasi-Albert"};
+        for (int k = 0; k < generators.length; k++) {
+            GraphGenerator generator = generators[k];
+            int[] edges = generator.edges();
+            if (!Arrays.equals(edges, generator.edges()))
+                throw new IllegalStateException("same seed gave different graphs");
+
+            Graph g = generator.graph();
+            int maxDegree = 0;
+            for (int v = 0; v < g.getVertexCount(); v++) {
+                maxDegree = Math.max(maxDegree, g.degree(v));
+            }
+            File file = File.createTempFile("generated", ".txt");
+            file.deleteOnExit();
+            long written = generator.write(file.toPath());
+            Graph read = new Graph(In.fast(file));
+            if (written != g.getEdgeCount() || !read.toString().equals(g.toString()))
+                throw new IllegalStateException("written graph differs");
+            File mappedFile = File.createTempFile("generated", ".graph");
+            mappedFile.deleteOnExit();
+            generator.writeMapped(mappedFile.toPath());
+            if (!new MappedGraph(mappedFile.toPath()).toString().equals(g.toString()))
+                throw new IllegalStateException("mapped graph differs");
+            System.out.printf("%s: %d vertices, %d edges, max degree %d, %d components%n",
+                    names[k], g.getVertexCount(), g.getEdgeCount(), maxDegree, new CC(g).count());
+        }
+    }
+}
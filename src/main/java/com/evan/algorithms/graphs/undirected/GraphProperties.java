@@ -1,6 +1,5 @@
 package com.evan.algorithms.graphs.undirected;
 
-import com.evan.algorithms.datastructures.Queue;
 import com.evan.algorithms.io.StdOut;
 
 /**
@@ -17,29 +16,22 @@ public class GraphProperties {
     private int center;
     private int girth = Integer.MAX_VALUE;
 
-    public GraphProperties(Graph g) {
-        eccentricities = new int[g.getVertexCount()];
+    public GraphProperties(UndirectedGraph g) {
         CC cc = new CC(g);
         if (cc.count() != 1)
             throw new IllegalArgumentException("graph is not connected");
+        // 用位并行的多源BFS一次计算所有顶点的离心率，同一批起点共享对边的扫描
+        eccentricities = new MultiSourceBFS(g).eccentricities();
         getProperties(g);
         computeGirth(g);
     }
 
-    private void getProperties(Graph g) {
+    private void getProperties(UndirectedGraph g) {
         diameter = 0;
         radius = Integer.MAX_VALUE;
         center = 0;
 
         for (int v = 0; v < g.getVertexCount(); v++) {
-            BreadthFirstPaths bfp = new BreadthFirstPaths(g, v);
-
-            for (int otherVertex = 0; otherVertex < g.getVertexCount(); otherVertex++) {
-                if (otherVertex == v)
-                    continue;
-                eccentricities[v] = Math.max(eccentricities[v], bfp.distTo(otherVertex));
-            }
-
             if (eccentricities[v] > diameter) {
                 diameter = eccentricities[v];
             }
@@ -50,36 +42,42 @@ public class GraphProperties {
         }
     }
 
-    private void computeGirth(Graph g) {
-        for (int v = 0; v < g.getVertexCount(); v++) {
-            int shortestCycle = bfsToGetShortestCycle(g, v);
-            girth = Math.min(girth, shortestCycle);
+    // 每个起点做一次BFS，所有BFS共用同一个工作区
+    private void computeGirth(UndirectedGraph g) {
+        TraversalWorkspace ws = TraversalWorkspace.acquire(g.getVertexCount());
+        try {
+            for (int v = 0; v < g.getVertexCount(); v++) {
+                int shortestCycle = bfsToGetShortestCycle(g, v, ws);
+                girth = Math.min(girth, shortestCycle);
+            }
+        } finally {
+            ws.release();
         }
     }
 
-    private int bfsToGetShortestCycle(Graph g, int u) {
+    private int bfsToGetShortestCycle(UndirectedGraph g, int u, TraversalWorkspace ws) {
         int shortestCycle = Integer.MAX_VALUE;
-        boolean[] marked = new boolean[g.getVertexCount()];
-        int[] distTo = new int[g.getVertexCount()];
-        int[] edgeTo = new int[g.getVertexCount()];
+        ws.clear();
+        // 每个顶点只入队一次，队列不需要循环使用；数组只读取已标记顶点的位置
+        int[] queue = ws.ints(TraversalWorkspace.INT_0);
+        int[] distTo = ws.ints(TraversalWorkspace.INT_1);
+        int[] edgeTo = ws.ints(TraversalWorkspace.INT_2);
 
-        for (int v = 0; v < g.getVertexCount(); v++) {
-            edgeTo[v] = Integer.MAX_VALUE;
-        }
         edgeTo[u] = 0;
-
-        Queue<Integer> q = new Queue<>();
-        q.enqueue(u);
-        marked[u] = true;
-
-        while (!q.isEmpty()) {
-            Integer v = q.dequeue();
-            for (Integer w : g.adj(v)) {
-                if (!marked[w]) {
-                    marked[w] = true;
+        distTo[u] = 0;
+        int head = 0, tail = 0;
+        queue[tail++] = u;
+        ws.mark(u);
+
+        while (head < tail) {
+            int v = queue[head++];
+            for (int i = 0, n = g.degree(v); i < n; i++) {
+                int w = g.adj(v, i);
+                if (!ws.isMarked(w)) {
+                    ws.mark(w);
                     edgeTo[w] = v;
                     distTo[w] = distTo[v] + 1;
-                    q.enqueue(w);
+                    queue[tail++] = w;
                 } else if (w != edgeTo[v]) {
                     int cycleLength = distTo[v] + distTo[w] + 1;
                     shortestCycle = Math.min(cycleLength, shortestCycle);
@@ -0,0 +1,109 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.io.In;
+
+import java.net.URL;
+
+/**
+ * 随着{@link Graph#addEdge(int, int)}增量维护的连通分量，API与{@link CC}相同(不提供id)。
+ * 使用按大小合并、路径减半的并查集，每添加一条边的代价近似为常数，
+ * 查询时不需要像CC那样重新遍历整个图。
+ * 构造时在图上注册了监听器，不再需要时调用{@link #detach()}，否则图会一直引用它并在每次addEdge时更新它
+ */
+public class IncrementalCC {
+    private final int[] parent; // parent[v] = v在并查集中的父节点
+    private final int[] size; // size[root] = 以root为根的树的元素个数
+    private int count; // 连通分量的个数
+    private final Graph.EdgeListener listener = this::union;
+    private Graph graph; // 监听的图，detach之后为null
+
+    // 用g中已有的边初始化，之后g每添加一条边都会更新
+    public IncrementalCC(Graph g) {
+        int vertexCount = g.getVertexCount();
+        parent = new int[vertexCount];
+        size = new int[vertexCount];
+        count = vertexCount;
+        for (int v = 0; v < vertexCount; v++) {
+            parent[v] = v;
+            size[v] = 1;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            for (int i = 0, n = g.degree(v); i < n; i++) {
+                union(v, g.adj(v, i));
+            }
+        }
+        g.addEdgeListener(listener);
+        graph = g;
+    }
+
+    // 不再随图更新，结果停留在调用时的状态
+    public void detach() {
+        if (graph == null) return;
+        graph.removeEdgeListener(listener);
+        graph = null;
+    }
+
+    private int find(int v) {
+        while (v != parent[v]) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private void union(int v, int w) {
+        int rootV = find(v);
+        int rootW = find(w);
+        if (rootV == rootW) return;
+
+        // 把较小的树挂到较大的树下
+        if (size[rootV] < size[rootW]) {
+            parent[rootV] = rootW;
+            size[rootW] += size[rootV];
+        } else {
+            parent[rootW] = rootV;
+            size[rootV] += size[rootW];
+        }
+        count--;
+    }
+
+    public int size(int v) {
+        validateVertex(v);
+        return size[find(v)];
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean connected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return find(v) == find(w);
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= parent.length) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (parent.length - 1));
+        }
+    }
+
+    public static void main(String[] args) {
+        URL url = IncrementalCC.class.getResource("/graph/tinyG.txt");
+        Graph g = new Graph(new In(url));
+        IncrementalCC cc = new IncrementalCC(g);
+        System.out.println(cc.count() + " components, 0 and 7 connected: " + cc.connected(0, 7));
+
+        g.addEdge(6, 7);
+        System.out.println(cc.count() + " components, 0 and 7 connected: " + cc.connected(0, 7)
+                + ", size " + cc.size(7));
+        g.addEdge(12, 0);
+        System.out.println(cc.count() + " components, expected " + new CC(g).count());
+
+        Graph h = new Graph(new In(url));
+        IncrementalCC detached = new IncrementalCC(h);
+        detached.detach();
+        h.addEdge(6, 7);
+        System.out.println("after detach: " + detached.count() + " components, graph has " + new CC(h).count());
+    }
+}
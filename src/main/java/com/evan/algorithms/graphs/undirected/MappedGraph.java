@@ -0,0 +1,310 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.io.In;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 通过内存映射打开的只读无向图，数据位于堆外，由操作系统的页缓存在多个JVM之间共享。
+ * 文件格式(小端序)：
+ * <pre>
+ *   header  : int magic, int version, int vertexCount, int edgeCount, long targetCount
+ *   offsets : long[vertexCount + 1]，顶点v的相邻顶点位于targets[offsets[v]..offsets[v+1])
+ *   targets : int[targetCount]
+ * </pre>
+ * 文件由{@link #write(UndirectedGraph, Path)}生成一次，之后打开只需映射，不解析也不复制。
+ * 单个映射不能超过2GB，因此每个区段按块映射
+ */
+public class MappedGraph implements UndirectedGraph {
+    private static final String NEWLINE = System.lineSeparator();
+
+    private static final int MAGIC = 0x47524150; // "GRAP"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    // 每个映射块包含2^27个long或2^28个int，即1GB
+    private static final int LONG_CHUNK_SHIFT = 27;
+    private static final int INT_CHUNK_SHIFT = 28;
+    private static final long LONG_CHUNK_MASK = (1L << LONG_CHUNK_SHIFT) - 1;
+    private static final long INT_CHUNK_MASK = (1L << INT_CHUNK_SHIFT) - 1;
+
+    private final int vertexCount;
+    private final int edgeCount;
+    private final LongBuffer[] offsets;
+    private final IntBuffer[] targets;
+
+    public MappedGraph(Path path) {
+        if (path == null) throw new IllegalArgumentException("argument is null");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES)
+                throw new IllegalArgumentException("invalid graph file " + path + ": file too short");
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ORDER);
+            if (header.getInt() != MAGIC)
+                throw new IllegalArgumentException("invalid graph file " + path + ": bad magic number");
+            int version = header.getInt();
+            if (version != VERSION)
+                throw new IllegalArgumentException("unsupported graph file version " + version);
+            vertexCount = header.getInt();
+            edgeCount = header.getInt();
+            long targetCount = header.getLong();
+            if (vertexCount < 0 || edgeCount < 0 || targetCount < 0)
+                throw new IllegalArgumentException("invalid graph file " + path + ": negative count in header");
+
+            long offsetsBytes = 8L * (vertexCount + 1);
+            if (channel.size() != HEADER_BYTES + offsetsBytes + 4L * targetCount)
+                throw new IllegalArgumentException("invalid graph file " + path + ": size does not match header");
+            offsets = mapLongs(channel, HEADER_BYTES, vertexCount + 1L);
+            targets = mapInts(channel, HEADER_BYTES + offsetsBytes, targetCount);
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("Could not open " + path, ioe);
+        }
+    }
+
+    private static LongBuffer[] mapLongs(FileChannel channel, long position, long count) throws IOException {
+        int chunks = (int) ((count + LONG_CHUNK_MASK) >>> LONG_CHUNK_SHIFT);
+        LongBuffer[] buffers = new LongBuffer[chunks];
+        for (int i = 0; i < chunks; i++) {
+            long first = (long) i << LONG_CHUNK_SHIFT;
+            long size = Math.min(count - first, 1L << LONG_CHUNK_SHIFT);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position + 8 * first, 8 * size);
+            buffers[i] = mapped.order(ORDER).asLongBuffer();
+        }
+        return buffers;
+    }
+
+    private static IntBuffer[] mapInts(FileChannel channel, long position, long count) throws IOException {
+        return asInts(mapIntChunks(channel, FileChannel.MapMode.READ_ONLY, position, count));
+    }
+
+    // 写入时还要保留MappedByteBuffer，以便最后调用force()
+    private static MappedByteBuffer[] mapIntChunks(FileChannel channel, FileChannel.MapMode mode,
+                                                   long position, long count) throws IOException {
+        int chunks = (int) ((count + INT_CHUNK_MASK) >>> INT_CHUNK_SHIFT);
+        MappedByteBuffer[] mapped = new MappedByteBuffer[chunks];
+        for (int i = 0; i < chunks; i++) {
+            long first = (long) i << INT_CHUNK_SHIFT;
+            long size = Math.min(count - first, 1L << INT_CHUNK_SHIFT);
+            mapped[i] = channel.map(mode, position + 4 * first, 4 * size);
+        }
+        return mapped;
+    }
+
+    private static IntBuffer[] asInts(MappedByteBuffer[] mapped) {
+        IntBuffer[] buffers = new IntBuffer[mapped.length];
+        for (int i = 0; i < mapped.length; i++) {
+            buffers[i] = mapped[i].order(ORDER).asIntBuffer();
+        }
+        return buffers;
+    }
+
+    // 将任意实现的无向图写成可映射的二进制文件，相邻顶点的顺序保持不变
+    public static void write(UndirectedGraph g, Path path) {
+        if (g == null || path == null) throw new IllegalArgumentException("argument is null");
+        int vertexCount = g.getVertexCount();
+        long targetCount = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            targetCount += g.degree(v);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ORDER);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(vertexCount).putInt(g.getEdgeCount()).putLong(targetCount);
+
+            long offset = 0;
+            for (int v = 0; v <= vertexCount; v++) {
+                if (buffer.remaining() < 8) drain(channel, buffer);
+                buffer.putLong(offset);
+                if (v < vertexCount) offset += g.degree(v);
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                for (int i = 0, n = g.degree(v); i < n; i++) {
+                    if (buffer.remaining() < 4) drain(channel, buffer);
+                    buffer.putInt(g.adj(v, i));
+                }
+            }
+            drain(channel, buffer);
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("Could not write " + path, ioe);
+        }
+    }
+
+    // 按顺序提供边，一个来源要被读取两遍，两遍必须给出同样的边
+    interface EdgeSource {
+        void forEachBlock(EdgeSink sink);
+    }
+
+    // edges[0, size)中第i条边为edges[2i]-edges[2i + 1]，size必须是偶数
+    interface EdgeSink {
+        void accept(int[] edges, int size);
+    }
+
+    /**
+     * 不在堆上建图，直接把边序列写成与{@link #write(UndirectedGraph, Path)}相同的文件，
+     * 相邻顶点的顺序与依次调用Graph.addEdge相同(后加入的边在前)。
+     * 第一遍统计度数并写入文件头和offsets，第二遍把每条边的两个端点写入映射的targets区段，
+     * 堆上只有vertexCount + 1个long。文件头中的边数是int，边数超过Integer.MAX_VALUE时抛出异常
+     */
+    static void write(int vertexCount, EdgeSource source, Path path) {
+        if (vertexCount < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        if (source == null || path == null) throw new IllegalArgumentException("argument is null");
+        // 第一遍：offsets[v + 1]累计顶点v的度数，再求前缀和
+        long[] offsets = new long[vertexCount + 1];
+        source.forEachBlock((edges, size) -> {
+            if (size % 2 != 0) throw new IllegalArgumentException("odd number of endpoints: " + size);
+            for (int i = 0; i < size; i++) {
+                int v = edges[i];
+                if (v < 0 || v >= vertexCount)
+                    throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (vertexCount - 1));
+                offsets[v + 1]++;
+            }
+        });
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        long targetCount = offsets[vertexCount];
+        if (targetCount / 2 > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("too many edges for a graph file: " + targetCount / 2);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ORDER);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(vertexCount).putInt((int) (targetCount / 2))
+                    .putLong(targetCount);
+            for (long offset : offsets) {
+                if (buffer.remaining() < 8) drain(channel, buffer);
+                buffer.putLong(offset);
+            }
+            drain(channel, buffer);
+
+            // 第二遍：offsets已经写入文件，offsets[v + 1]改作顶点v的区段从末尾向前填充的位置
+            MappedByteBuffer[] mapped = mapIntChunks(channel, FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + 8L * (vertexCount + 1), targetCount);
+            IntBuffer[] targets = asInts(mapped);
+            source.forEachBlock((edges, size) -> {
+                for (int i = 0; i < size; i += 2) {
+                    int v = edges[i], w = edges[i + 1];
+                    long j = --offsets[v + 1];
+                    targets[(int) (j >>> INT_CHUNK_SHIFT)].put((int) (j & INT_CHUNK_MASK), w);
+                    j = --offsets[w + 1];
+                    targets[(int) (j >>> INT_CHUNK_SHIFT)].put((int) (j & INT_CHUNK_MASK), v);
+                }
+            });
+            // 返回时文件已完整写入磁盘
+            for (MappedByteBuffer chunk : mapped) {
+                chunk.force();
+            }
+            channel.force(true);
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("Could not write " + path, ioe);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= vertexCount)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (vertexCount - 1));
+    }
+
+    private long offset(int v) {
+        return offsets[v >>> LONG_CHUNK_SHIFT].get((int) (v & LONG_CHUNK_MASK));
+    }
+
+    private int target(long i) {
+        return targets[(int) (i >>> INT_CHUNK_SHIFT)].get((int) (i & INT_CHUNK_MASK));
+    }
+
+    @Override
+    public Iterable<Integer> adj(int v) {
+        validateVertex(v);
+        long start = offset(v);
+        long end = offset(v + 1);
+        return () -> new Iterator<>() {
+            private long current = start;
+
+            @Override
+            public boolean hasNext() {
+                return current < end;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return target(current++);
+            }
+        };
+    }
+
+    @Override
+    public int adj(int v, int i) {
+        int degree = degree(v);
+        if (i < 0 || i >= degree)
+            throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (degree - 1));
+        return target(offset(v) + i);
+    }
+
+    @Override
+    public int degree(int v) {
+        validateVertex(v);
+        return (int) (offset(v + 1) - offset(v));
+    }
+
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(vertexCount).append(" vertices, ")
+                .append(edgeCount).append(" edges ").append(NEWLINE);
+        for (int v = 0; v < vertexCount; v++) {
+            s.append(v).append(": ");
+            for (long i = offset(v); i < offset(v + 1); i++) {
+                s.append(target(i)).append(" ");
+            }
+            s.append(NEWLINE);
+        }
+        return s.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        URL url = MappedGraph.class.getResource("/graph/tinyG.txt");
+        Graph g = new Graph(new In(url));
+        Path file = Files.createTempFile("tinyG", ".graph");
+        try {
+            MappedGraph.write(g, file);
+            MappedGraph mapped = new MappedGraph(file);
+            System.out.println(mapped);
+            System.out.println("same as Graph: " + mapped.toString().equals(g.toString()));
+            System.out.println(new CC(mapped).count() + " components");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.io.StdRandom;
+
+import java.util.Arrays;
+
+/**
+ * 位并行的多源广度优先搜索(MS-BFS, Then et al.)。
+ * 一批最多64 * words个起点同时进行BFS，每个顶点用words个long记录哪些起点已经到达：
+ * seen[v]为已到达v的起点集合，visit[v]为当前层刚到达v的起点集合。
+ * 扫描一条边v-w时用一次按位或把visit[v]传给w，因此同一条边只扫描一次就服务了整批起点
+ */
+public class MultiSourceBFS {
+    private final UndirectedGraph g;
+    private final int words; // 每个顶点的位掩码由多少个long组成
+    private final long[] seen;
+    private final long[] visit;
+    private final long[] visitNext;
+
+    public MultiSourceBFS(UndirectedGraph g) {
+        this(g, 1);
+    }
+
+    // words为1时每批64个起点，为4时每批256个起点
+    public MultiSourceBFS(UndirectedGraph g, int words) {
+        if (words < 1) throw new IllegalArgumentException("words must be positive");
+        this.g = g;
+        this.words = words;
+        long length = (long) g.getVertexCount() * words;
+        if (length > Integer.MAX_VALUE) throw new IllegalArgumentException("too many vertices for " + words + " words");
+        seen = new long[(int) length];
+        visit = new long[(int) length];
+        visitNext = new long[(int) length];
+    }
+
+    public int batchSize() {
+        return 64 * words;
+    }
+
+    // 返回所有顶点的离心率，即到可达顶点的最长最短路径长度
+    public int[] eccentricities() {
+        int[] sources = new int[g.getVertexCount()];
+        for (int v = 0; v < sources.length; v++) {
+            sources[v] = v;
+        }
+        return eccentricities(sources);
+    }
+
+    // 返回result[i] = sources[i]的离心率
+    public int[] eccentricities(int[] sources) {
+        for (int s : sources) {
+            validateVertex(s);
+        }
+        int[] result = new int[sources.length];
+        for (int from = 0; from < sources.length; from += batchSize()) {
+            int to = Math.min(from + batchSize(), sources.length);
+            runBatch(sources, from, to, result);
+        }
+        return result;
+    }
+
+    private void runBatch(int[] sources, int from, int to, int[] result) {
+        Arrays.fill(seen, 0);
+        Arrays.fill(visit, 0);
+        for (int j = 0; j < to - from; j++) {
+            int i = sources[from + j] * words + (j >>> 6);
+            seen[i] |= 1L << j;
+            visit[i] |= 1L << j;
+        }
+
+        int vertexCount = g.getVertexCount();
+        long[] reached = new long[words];
+        for (int depth = 1; ; depth++) {
+            // 把当前层的起点集合沿每条边传给相邻顶点
+            for (int v = 0; v < vertexCount; v++) {
+                int base = v * words;
+                if (isZero(visit, base)) continue;
+                for (int i = 0, n = g.degree(v); i < n; i++) {
+                    int w = g.adj(v, i) * words;
+                    for (int k = 0; k < words; k++) {
+                        visitNext[w + k] |= visit[base + k];
+                    }
+                }
+            }
+
+            // 去掉已经到达过的起点，剩下的起点在这一层首次到达该顶点
+            Arrays.fill(reached, 0);
+            boolean any = false;
+            for (int i = 0; i < visit.length; i++) {
+                long x = visitNext[i] & ~seen[i];
+                visitNext[i] = 0;
+                visit[i] = x;
+                if (x != 0) {
+                    seen[i] |= x;
+                    reached[i % words] |= x;
+                    any = true;
+                }
+            }
+            if (!any) return;
+
+            // 在这一层仍有新顶点到达的起点，其离心率至少为depth
+            for (int k = 0; k < words; k++) {
+                for (long bits = reached[k]; bits != 0; bits &= bits - 1) {
+                    result[from + 64 * k + Long.numberOfTrailingZeros(bits)] = depth;
+                }
+            }
+        }
+    }
+
+    private boolean isZero(long[] masks, int base) {
+        for (int k = 0; k < words; k++) {
+            if (masks[base + k] != 0) return false;
+        }
+        return true;
+    }
+
+    private void validateVertex(int v) {
+        int vertexCount = g.getVertexCount();
+        if (v < 0 || v >= vertexCount) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (vertexCount - 1));
+        }
+    }
+
+    public static void main(String[] args) {
+        int vertexCount = 5000;
+        StdRandom.setSeed(7);
+        Graph g = new Graph(vertexCount);
+        for (int v = 1; v < vertexCount; v++) {
+            g.addEdge(v, StdRandom.uniformInt(v));
+        }
+        for (int i = 0; i < 2 * vertexCount; i++) {
+            g.addEdge(StdRandom.uniformInt(vertexCount), StdRandom.uniformInt(vertexCount));
+        }
+
+        long start = System.nanoTime();
+        int[] expected = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            BreadthFirstPaths bfs = new BreadthFirstPaths(g, v);
+            for (int w = 0; w < vertexCount; w++) {
+                expected[v] = Math.max(expected[v], bfs.distTo(w));
+            }
+        }
+        long single = System.nanoTime() - start;
+
+        for (int words : new int[] {1, 4}) {
+            start = System.nanoTime();
+            int[] actual = new MultiSourceBFS(g, words).eccentricities();
+            long multi = System.nanoTime() - start;
+            System.out.printf("%d sources per batch: %s, %d ms vs %d ms for one BFS per vertex\n",
+                    64 * words, Arrays.equals(expected, actual) ? "same eccentricities" : "MISMATCH",
+                    multi / 1000000, single / 1000000);
+        }
+    }
+}
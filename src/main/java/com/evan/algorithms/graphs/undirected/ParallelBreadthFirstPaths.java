@@ -0,0 +1,218 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.datastructures.Stack;
+import com.evan.algorithms.io.In;
+import com.evan.algorithms.io.StdRandom;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * 按层同步的并行广度优先搜索，API与{@link BreadthFirstPaths}相同。
+ * 每一层的边界被划分为若干段，在{@link ForkJoinPool}上并行扩展：
+ * 顶点通过对访问位图的CAS操作认领，每个任务先把认领的顶点写入自己的缓冲区，
+ * 再一次性追加到下一层的边界中。
+ * distTo的结果总是确定的；edgeTo取决于哪个线程先认领顶点，
+ * 如果需要确定的结果，可以将其规范化为编号最小的上一层相邻顶点
+ */
+public class ParallelBreadthFirstPaths {
+    private static final int INF = Integer.MAX_VALUE;
+    // 每个任务至少处理的边界顶点数
+    private static final int GRAIN = 512;
+
+    private final int vertexCount;
+    private final AtomicLongArray visited; // 访问位图，每个long记录64个顶点
+    private final int[] edgeTo; // edgeTo[v] = s-v的路径的最后一条边
+    private final int[] distTo; // distTo[v] = s-v的最短路径长度
+
+    public ParallelBreadthFirstPaths(UndirectedGraph g, int s) {
+        this(g, s, ForkJoinPool.commonPool(), false);
+    }
+
+    public ParallelBreadthFirstPaths(UndirectedGraph g, int s, ForkJoinPool pool, boolean canonicalEdgeTo) {
+        if (pool == null) throw new IllegalArgumentException("pool is null");
+        vertexCount = g.getVertexCount();
+        visited = new AtomicLongArray((vertexCount + 63) >>> 6);
+        edgeTo = new int[vertexCount];
+        distTo = new int[vertexCount];
+        validateVertex(s);
+        bfs(g, s, pool);
+        if (canonicalEdgeTo) {
+            pool.submit(() -> IntStream.range(0, vertexCount).parallel().forEach(v -> canonicalize(g, v))).join();
+        }
+    }
+
+    private void bfs(UndirectedGraph g, int s, ForkJoinPool pool) {
+        Arrays.fill(distTo, INF);
+        int[] frontier = new int[vertexCount];
+        int[] next = new int[vertexCount];
+        AtomicInteger nextSize = new AtomicInteger();
+
+        claim(s);
+        distTo[s] = 0;
+        frontier[0] = s;
+        int size = 1;
+        while (size > 0) {
+            nextSize.set(0);
+            // invoke返回时所有任务已完成，任务内的写入对当前线程可见
+            pool.invoke(new LevelTask(g, frontier, 0, size, next, nextSize));
+            int[] t = frontier;
+            frontier = next;
+            next = t;
+            size = nextSize.get();
+        }
+    }
+
+    // 扩展边界frontier[lo..hi)，认领的顶点追加到next中
+    private class LevelTask extends RecursiveAction {
+        private final UndirectedGraph g;
+        private final int[] frontier;
+        private final int lo;
+        private final int hi;
+        private final int[] next;
+        private final AtomicInteger nextSize;
+
+        LevelTask(UndirectedGraph g, int[] frontier, int lo, int hi, int[] next, AtomicInteger nextSize) {
+            this.g = g;
+            this.frontier = frontier;
+            this.lo = lo;
+            this.hi = hi;
+            this.next = next;
+            this.nextSize = nextSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new LevelTask(g, frontier, lo, mid, next, nextSize),
+                        new LevelTask(g, frontier, mid, hi, next, nextSize));
+                return;
+            }
+
+            int[] buffer = new int[hi - lo];
+            int count = 0;
+            for (int k = lo; k < hi; k++) {
+                int v = frontier[k];
+                int d = distTo[v] + 1;
+                for (int i = 0, n = g.degree(v); i < n; i++) {
+                    int w = g.adj(v, i);
+                    if (!isVisited(w) && claim(w)) {
+                        edgeTo[w] = v;
+                        distTo[w] = d;
+                        if (count == buffer.length) buffer = Arrays.copyOf(buffer, 2 * count);
+                        buffer[count++] = w;
+                    }
+                }
+            }
+            if (count > 0) {
+                System.arraycopy(buffer, 0, next, nextSize.getAndAdd(count), count);
+            }
+        }
+    }
+
+    private boolean isVisited(int v) {
+        return (visited.get(v >>> 6) & (1L << v)) != 0;
+    }
+
+    // 成功将v从未访问改为已访问时返回true
+    private boolean claim(int v) {
+        int word = v >>> 6;
+        long bit = 1L << v;
+        long old = visited.get(word);
+        while ((old & bit) == 0) {
+            if (visited.compareAndSet(word, old, old | bit)) {
+                return true;
+            }
+            old = visited.get(word);
+        }
+        return false;
+    }
+
+    private void canonicalize(UndirectedGraph g, int v) {
+        int d = distTo[v];
+        if (d == 0 || d == INF) return;
+        int parent = edgeTo[v];
+        for (int i = 0, n = g.degree(v); i < n; i++) {
+            int w = g.adj(v, i);
+            if (distTo[w] == d - 1 && w < parent) {
+                parent = w;
+            }
+        }
+        edgeTo[v] = parent;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= vertexCount) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (vertexCount - 1));
+        }
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return isVisited(v);
+    }
+
+    public int distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    public Iterable<Integer> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) {
+            return null;
+        }
+        Stack<Integer> path = new Stack<>();
+        int x;
+        for (x = v; distTo[x] != 0; x = edgeTo[x]) {
+            path.push(x);
+        }
+        path.push(x);
+        return path;
+    }
+
+    public static void main(String[] args) {
+        URL url = ParallelBreadthFirstPaths.class.getResource("/graph/tinyCG.txt");
+        Graph g = new Graph(new In(url));
+        int s = 0;
+        ParallelBreadthFirstPaths bfs = new ParallelBreadthFirstPaths(g, s, ForkJoinPool.commonPool(), true);
+        for (int v = 0; v < g.getVertexCount(); v++) {
+            if (bfs.hasPathTo(v)) {
+                System.out.printf("%d to %d (%d):  ", s, v, bfs.distTo(v));
+                for (int x : bfs.pathTo(v)) {
+                    if (x == s) System.out.print(x);
+                    else System.out.print("-" + x);
+                }
+                System.out.println();
+            } else {
+                System.out.printf("%d to %d (-):  not connected\n", s, v);
+            }
+        }
+
+        int vertexCount = 1000000;
+        StdRandom.setSeed(42);
+        Graph builder = new Graph(vertexCount);
+        for (int i = 0; i < 8 * vertexCount; i++) {
+            builder.addEdge(StdRandom.uniformInt(vertexCount), StdRandom.uniformInt(vertexCount));
+        }
+        CsrGraph random = new CsrGraph(builder);
+        long start = System.nanoTime();
+        BreadthFirstPaths expected = new BreadthFirstPaths(random, 0);
+        long sequential = System.nanoTime() - start;
+        start = System.nanoTime();
+        ParallelBreadthFirstPaths actual = new ParallelBreadthFirstPaths(random, 0);
+        long parallel = System.nanoTime() - start;
+        for (int v = 0; v < vertexCount; v++) {
+            if (expected.distTo(v) != actual.distTo(v))
+                throw new IllegalStateException("distTo(" + v + ") mismatch");
+        }
+        System.out.printf("sequential %d ms, parallel %d ms on %d threads\n",
+                sequential / 1000000, parallel / 1000000, ForkJoinPool.commonPool().getParallelism());
+    }
+}
@@ -0,0 +1,170 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.io.StdRandom;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * 并行计算连通分量(Afforest, Sutton et al.)，API与{@link CC}相同。
+ * 用无锁的并查集合并边的两个端点：总是把编号较大的根用CAS挂到编号较小的根下，
+ * 因此每个分量的根是其中编号最小的顶点。
+ * 先只处理每个顶点的前几条边，通过采样找出最大的分量，
+ * 再处理其余顶点的剩余边，跳过最大分量中的顶点，可省去大部分边的处理
+ */
+public class ParallelCC {
+    // 第一阶段每个顶点处理的边数
+    private static final int NEIGHBOR_ROUNDS = 2;
+    private static final int SAMPLES = 1024;
+
+    private final AtomicIntegerArray parent;
+    private final int[] id; // id[v] = v所属连通分量id，与CC的编号相同
+    private final int[] size; // size[v] = 连通分量v的元素个数
+    private int count; // 连通分量的个数
+
+    public ParallelCC(UndirectedGraph g) {
+        this(g, ForkJoinPool.commonPool());
+    }
+
+    public ParallelCC(UndirectedGraph g, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("pool is null");
+        int vertexCount = g.getVertexCount();
+        parent = new AtomicIntegerArray(vertexCount);
+        id = new int[vertexCount];
+        size = new int[vertexCount];
+        pool.submit(() -> {
+            IntStream.range(0, vertexCount).parallel().forEach(v -> parent.set(v, v));
+
+            for (int r = 0; r < NEIGHBOR_ROUNDS; r++) {
+                int round = r;
+                IntStream.range(0, vertexCount).parallel().forEach(v -> {
+                    if (round < g.degree(v)) link(v, g.adj(v, round));
+                });
+                IntStream.range(0, vertexCount).parallel().forEach(this::compress);
+            }
+
+            int largest = sampleFrequentRoot(vertexCount);
+            IntStream.range(0, vertexCount).parallel().forEach(v -> {
+                if (parent.get(v) == largest) return;
+                for (int i = NEIGHBOR_ROUNDS, n = g.degree(v); i < n; i++) {
+                    link(v, g.adj(v, i));
+                }
+            });
+            IntStream.range(0, vertexCount).parallel().forEach(this::compress);
+        }).join();
+
+        // 根是分量中编号最小的顶点，按顶点顺序编号与CC的结果一致
+        for (int v = 0; v < vertexCount; v++) {
+            int root = parent.get(v);
+            if (root == v) {
+                id[v] = count++;
+            } else {
+                id[v] = id[root];
+            }
+            size[id[v]]++;
+        }
+    }
+
+    // 合并u和v所在的树，把较大的根挂到较小的根下
+    private void link(int u, int v) {
+        int p1 = parent.get(u);
+        int p2 = parent.get(v);
+        while (p1 != p2) {
+            int high = Math.max(p1, p2);
+            int low = Math.min(p1, p2);
+            int pHigh = parent.get(high);
+            if (pHigh == low) break;
+            if (pHigh == high && parent.compareAndSet(high, high, low)) break;
+            p1 = parent.get(parent.get(high));
+            p2 = parent.get(low);
+        }
+    }
+
+    // 路径压缩，使v直接指向根
+    private void compress(int v) {
+        int p = parent.get(v);
+        int pp = parent.get(p);
+        while (p != pp) {
+            parent.set(v, pp);
+            p = pp;
+            pp = parent.get(p);
+        }
+    }
+
+    // 随机采样顶点的根，返回出现次数最多的根
+    private int sampleFrequentRoot(int vertexCount) {
+        if (vertexCount == 0) return -1;
+        SplittableRandom random = new SplittableRandom(vertexCount);
+        int[] roots = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            roots[i] = parent.get(random.nextInt(vertexCount));
+        }
+        Arrays.sort(roots);
+        int best = roots[0];
+        int bestRun = 0;
+        for (int i = 0, run = 0; i < SAMPLES; i++) {
+            run = (i > 0 && roots[i] == roots[i - 1]) ? run + 1 : 1;
+            if (run > bestRun) {
+                bestRun = run;
+                best = roots[i];
+            }
+        }
+        return best;
+    }
+
+    public int id(int v) {
+        validateVertex(v);
+        return id[v];
+    }
+
+    public int size(int v) {
+        validateVertex(v);
+        return size[id[v]];
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean connected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return id[v] == id[w];
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= id.length) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (id.length - 1));
+        }
+    }
+
+    public static void main(String[] args) {
+        int vertexCount = 2000000;
+        StdRandom.setSeed(3);
+        Graph builder = new Graph(vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            builder.addEdge(StdRandom.uniformInt(vertexCount), StdRandom.uniformInt(vertexCount));
+        }
+        CsrGraph g = new CsrGraph(builder);
+
+        long start = System.nanoTime();
+        CC expected = new CC(g);
+        long sequential = System.nanoTime() - start;
+        start = System.nanoTime();
+        ParallelCC actual = new ParallelCC(g);
+        long parallel = System.nanoTime() - start;
+
+        if (expected.count() != actual.count())
+            throw new IllegalStateException("count mismatch");
+        for (int v = 0; v < vertexCount; v++) {
+            if (expected.id(v) != actual.id(v) || expected.size(v) != actual.size(v))
+                throw new IllegalStateException("component of " + v + " mismatch");
+        }
+        System.out.printf("%d components, the one containing 0 has %d vertices\n", actual.count(), actual.size(0));
+        System.out.printf("CC %d ms, ParallelCC %d ms on %d threads\n",
+                sequential / 1000000, parallel / 1000000, ForkJoinPool.commonPool().getParallelism());
+    }
+}
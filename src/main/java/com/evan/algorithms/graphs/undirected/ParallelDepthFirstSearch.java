@@ -0,0 +1,241 @@
+package com.evan.algorithms.graphs.undirected;
+
+import com.evan.algorithms.datastructures.IntWorkStealingDeque;
+import com.evan.algorithms.io.In;
+import com.evan.algorithms.io.StdRandom;
+
+import java.net.URL;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 并行的单点可达性(深度优先的顺序扩展)，API与{@link DepthFirstSearch}相同。
+ * 每个工作线程有一个{@link IntWorkStealingDeque}，从自己的队列底部取出顶点，
+ * 通过对访问位图的CAS操作认领相邻顶点后push到自己的队列中；自己的队列为空时随机选择其他线程的队列窃取。
+ * 遍历开始时只有一个线程，它的队列中的顶点超过SPAWN_THRESHOLD个时才启动其他工作线程，
+ * 因此在路径、网格这类边界始终很窄的图上与顺序遍历相比只多了队列和CAS的开销。
+ * 只计算哪些顶点可达，顶点的访问顺序与DepthFirstSearch不同
+ */
+public class ParallelDepthFirstSearch {
+    // 第一个线程的队列中的顶点数超过这个值时启动其他工作线程
+    private static final int SPAWN_THRESHOLD = 256;
+    // 空闲线程等待时先自旋，再让出CPU，之后每次休眠PARK_NANOS纳秒
+    private static final int SPINS = 64;
+    private static final int YIELDS = 256;
+    private static final long PARK_NANOS = 20000;
+
+    private final int vertexCount;
+    private final AtomicLongArray visited; // 访问位图，每个long记录64个顶点
+    private final IntWorkStealingDeque[] deques;
+    // 持有顶点或正在尝试窃取的线程数，为0时所有队列都已为空，遍历结束
+    private final AtomicInteger active = new AtomicInteger();
+    private int count; // 与起点相连的顶点数量
+
+    public ParallelDepthFirstSearch(UndirectedGraph g, int s) {
+        this(g, s, ForkJoinPool.commonPool());
+    }
+
+    public ParallelDepthFirstSearch(UndirectedGraph g, int s, ForkJoinPool pool) {
+        if (pool == null) throw new IllegalArgumentException("pool is null");
+        vertexCount = g.getVertexCount();
+        validateVertex(s);
+        visited = new AtomicLongArray((vertexCount + 63) >>> 6);
+        deques = new IntWorkStealingDeque[Math.max(1, pool.getParallelism())];
+        for (int i = 0; i < deques.length; i++) {
+            deques[i] = new IntWorkStealingDeque();
+        }
+        claim(s);
+        deques[0].push(s);
+        active.set(1);
+        Worker first = new Worker(g, 0);
+        // invoke返回时所有工作线程已结束，它们的写入对当前线程可见
+        pool.invoke(first);
+        count = first.total;
+    }
+
+    private class Worker extends RecursiveAction {
+        private final UndirectedGraph g;
+        private final int id;
+        private long seed; // 选择窃取对象的xorshift随机数
+        private int reached; // 本线程访问的顶点数
+        private int total; // 第一个线程汇总所有线程访问的顶点数
+
+        Worker(UndirectedGraph g, int id) {
+            this.g = g;
+            this.id = id;
+            this.seed = 0x9E3779B97F4A7C15L * (id + 1);
+        }
+
+        @Override
+        protected void compute() {
+            IntWorkStealingDeque own = deques[id];
+            Worker[] helpers = null;
+            // 只有第一个线程开始时持有顶点
+            boolean holding = id == 0;
+            int idle = 0;
+            while (true) {
+                int v = own.pop();
+                if (v != IntWorkStealingDeque.EMPTY) {
+                    expand(v, own);
+                    if (helpers == null && id == 0 && deques.length > 1 && own.size() > SPAWN_THRESHOLD) {
+                        helpers = spawnHelpers();
+                    }
+                    continue;
+                }
+                if (holding) {
+                    active.decrementAndGet();
+                    holding = false;
+                }
+                // 先计入active再窃取，窃取到的顶点在处理完之前active不会为0
+                if (active.get() == 0) break;
+                active.incrementAndGet();
+                v = stealFromOthers();
+                if (v == IntWorkStealingDeque.EMPTY) {
+                    active.decrementAndGet();
+                    backoff(idle++);
+                    continue;
+                }
+                holding = true;
+                idle = 0;
+                expand(v, own);
+            }
+
+            total = reached;
+            if (helpers != null) {
+                for (Worker helper : helpers) {
+                    helper.join();
+                    total += helper.reached;
+                }
+            }
+        }
+
+        private void expand(int v, IntWorkStealingDeque own) {
+            reached++;
+            for (int i = 0, n = g.degree(v); i < n; i++) {
+                int w = g.adj(v, i);
+                if (!isVisited(w) && claim(w)) {
+                    own.push(w);
+                }
+            }
+        }
+
+        // 在池中fork其他工作线程；没有空闲的池线程时，它们在join时才运行，此时遍历已结束，会立即返回
+        private Worker[] spawnHelpers() {
+            Worker[] helpers = new Worker[deques.length - 1];
+            for (int i = 0; i < helpers.length; i++) {
+                helpers[i] = new Worker(g, i + 1);
+                helpers[i].fork();
+            }
+            return helpers;
+        }
+
+        // 从随机的起点开始依次尝试其他线程的队列
+        private int stealFromOthers() {
+            seed ^= seed << 13;
+            seed ^= seed >>> 7;
+            seed ^= seed << 17;
+            int start = (int) ((seed >>> 33) % deques.length);
+            for (int k = 0; k < deques.length; k++) {
+                int victim = start + k < deques.length ? start + k : start + k - deques.length;
+                if (victim == id) continue;
+                int v = deques[victim].steal();
+                if (v != IntWorkStealingDeque.EMPTY) return v;
+            }
+            return IntWorkStealingDeque.EMPTY;
+        }
+    }
+
+    private static void backoff(int idle) {
+        if (idle < SPINS) Thread.onSpinWait();
+        else if (idle < YIELDS) Thread.yield();
+        else LockSupport.parkNanos(PARK_NANOS);
+    }
+
+    private boolean isVisited(int v) {
+        return (visited.get(v >>> 6) & (1L << v)) != 0;
+    }
+
+    // 成功将v从未访问改为已访问时返回true
+    private boolean claim(int v) {
+        int word = v >>> 6;
+        long bit = 1L << v;
+        long old = visited.get(word);
+        while ((old & bit) == 0) {
+            if (visited.compareAndSet(word, old, old | bit)) {
+                return true;
+            }
+            old = visited.get(word);
+        }
+        return false;
+    }
+
+    public boolean marked(int v) {
+        validateVertex(v);
+        return isVisited(v);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= vertexCount) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (vertexCount - 1));
+        }
+    }
+
+    public static void main(String[] args) {
+        URL url = ParallelDepthFirstSearch.class.getResource("/graph/tinyG.txt");
+        Graph g = new Graph(new In(url));
+        ParallelDepthFirstSearch search = new ParallelDepthFirstSearch(g, 0);
+        for (int v = 0; v < g.getVertexCount(); v++) {
+            if (search.marked(v))
+                System.out.print(v + " ");
+        }
+        System.out.println();
+        if (search.count() != g.getVertexCount())
+            System.out.println("Not connected");
+        else
+            System.out.println("connected");
+
+        // 宽图：随机图；窄图：一条长路径
+        int vertexCount = 2000000;
+        StdRandom.setSeed(7);
+        Graph wide = new Graph(vertexCount);
+        for (int i = 0; i < 4 * vertexCount; i++) {
+            wide.addEdge(StdRandom.uniformInt(vertexCount), StdRandom.uniformInt(vertexCount));
+        }
+        Graph narrow = new Graph(vertexCount);
+        for (int v = 1; v < vertexCount; v++) {
+            narrow.addEdge(v - 1, v);
+        }
+        compare("wide", new CsrGraph(wide));
+        compare("narrow", new CsrGraph(narrow));
+    }
+
+    // 与CC的结果比较，并与单线程(池中只有一个线程时不启动其他工作线程)的耗时比较
+    private static void compare(String name, UndirectedGraph g) {
+        CC cc = new CC(g);
+        ForkJoinPool single = new ForkJoinPool(1);
+        long start = System.nanoTime();
+        ParallelDepthFirstSearch sequential = new ParallelDepthFirstSearch(g, 0, single);
+        long sequentialTime = System.nanoTime() - start;
+        single.shutdown();
+        start = System.nanoTime();
+        ParallelDepthFirstSearch parallel = new ParallelDepthFirstSearch(g, 0);
+        long parallelTime = System.nanoTime() - start;
+        for (ParallelDepthFirstSearch search : new ParallelDepthFirstSearch[]{sequential, parallel}) {
+            if (search.count() != cc.size(0))
+                throw new IllegalStateException("count mismatch");
+            for (int v = 0; v < g.getVertexCount(); v++) {
+                if (search.marked(v) != cc.connected(0, v))
+                    throw new IllegalStateException("marked(" + v + ") mismatch");
+            }
+        }
+        System.out.printf("%s: %d reachable, 1 thread %d ms, %d threads %d ms\n", name, parallel.count(),
+                sequentialTime / 1000000, ForkJoinPool.commonPool().getParallelism(), parallelTime / 1000000);
+    }
+}
@@ -1,70 +1,193 @@
 package com.evan.algorithms.graphs.undirected;
 
+import com.evan.algorithms.datastructures.StringDictionary;
 import com.evan.algorithms.io.In;
 import com.evan.algorithms.io.StdIn;
 import com.evan.algorithms.io.StdOut;
 
+import java.io.File;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 /**
- * 符号表，对{@link Graph}的增强，支持顶点名称为任意字符串，提供了顶点名称与索引之间的映射
+ * 符号表，对{@link Graph}的增强，支持顶点名称为任意字符串，提供了顶点名称与索引之间的映射。
+ * 每行的第一个名称与同一行的其他名称之间各有一条边，顶点索引按名称第一次出现的顺序分配，空行被忽略。
+ * 顶点名称保存在{@link StringDictionary}中，而不是HashMap和String数组，大量顶点时内存占用小得多
  */
 public class SymbolGraph {
-    private final Map<String, Integer> st; // string -> index
-    private final String[] keys; // index -> string
+    // 正则表达式的元字符，不含这些字符的分隔符按字面值切分，不需要正则表达式
+    private static final String REGEX_META_CHARS = ".$|()[]{}^?*+\\";
+
+    private final StringDictionary names; // string <-> index
     private final Graph g;
 
-    // 使用url方便读取resource目录下的文件
+    // 使用url方便读取resource目录下的文件，只读取一遍输入
     public SymbolGraph(URL url, String delimiter) {
-        st = new HashMap<>();
-
-        In in = new In(url);
-        while (!in.isEmpty()) {
-            String[] a = in.readLine().split(delimiter);
-            for (String s : a) {
-                if (!st.containsKey(s)) {
-                    st.put(s, st.size());
+        Splitter splitter = new Splitter(delimiter);
+        Chunk chunk = new Chunk();
+        chunk.parse(In.fast(url), splitter);
+
+        names = chunk.names;
+        g = new Graph(names.size(), chunk.edges, chunk.edgeCount);
+    }
+
+    public SymbolGraph(File file, String delimiter) {
+        this(file, delimiter, false);
+    }
+
+    // 将文件按行切分成多块并行解析，每块使用局部的名称表，再按块的顺序合并，
+    // 因此顶点索引和邻接表的顺序与单线程读取的结果完全相同。offHeap为true时顶点名称存放在堆外
+    public SymbolGraph(File file, String delimiter, boolean offHeap) {
+        Splitter splitter = new Splitter(delimiter);
+        List<Chunk> chunks = In.parseLinesInParallel(file, in -> {
+            Chunk chunk = new Chunk();
+            chunk.parse(in, splitter);
+            return chunk;
+        });
+
+        // 按块的顺序把局部索引映射为全局索引
+        names = new StringDictionary(offHeap);
+        int[][] localToGlobal = new int[chunks.size()][];
+        int[] edgeOffsets = new int[chunks.size() + 1];
+        for (int c = 0; c < chunks.size(); c++) {
+            Chunk chunk = chunks.get(c);
+            localToGlobal[c] = names.putAll(chunk.names);
+            edgeOffsets[c + 1] = Math.addExact(edgeOffsets[c], chunk.edgeCount);
+        }
+
+        int edgeCount = edgeOffsets[chunks.size()];
+        int[] edges = new int[Math.multiplyExact(2, edgeCount)];
+        IntStream.range(0, chunks.size()).parallel().forEach(c -> {
+            Chunk chunk = chunks.get(c);
+            int[] map = localToGlobal[c];
+            for (int i = 0, j = 2 * edgeOffsets[c]; i < 2 * chunk.edgeCount; i++, j++) {
+                edges[j] = map[chunk.edges[i]];
+            }
+        });
+        g = new Graph(names.size(), edges, edgeCount);
+    }
+
+    // 一块输入的解析结果：按出现顺序编号的名称，以及用这些编号表示的边
+    private static class Chunk {
+        private final StringDictionary names = new StringDictionary();
+        private int[] edges = new int[16]; // edges[2i]-edges[2i+1]为第i条边
+        private int edgeCount;
+
+        private void parse(In in, Splitter splitter) {
+            while (in.hasNextLine()) {
+                String line = in.readLine();
+                if (line.isEmpty()) continue;
+                String[] a = splitter.split(line);
+                if (a.length == 0) continue;
+                int v = names.put(a[0]);
+                for (int i = 1; i < a.length; i++) {
+                    addEdge(v, names.put(a[i]));
                 }
             }
         }
 
-        keys = new String[st.size()];
-        for (String name : st.keySet()) {
-            keys[st.get(name)] = name;
+        private void addEdge(int v, int w) {
+            if (2 * edgeCount == edges.length) {
+                edges = Arrays.copyOf(edges, 2 * edges.length);
+            }
+            edges[2 * edgeCount] = v;
+            edges[2 * edgeCount + 1] = w;
+            edgeCount++;
+        }
+    }
+
+    // 与String.split(delimiter)的结果相同，但正则表达式只编译一次，普通的分隔符直接按字面值查找
+    private static class Splitter {
+        private final String delimiter;
+        private final Pattern pattern; // 分隔符不含元字符时为null
+
+        private Splitter(String delimiter) {
+            if (delimiter == null) throw new IllegalArgumentException("delimiter is null");
+            this.delimiter = delimiter;
+            boolean literal = !delimiter.isEmpty();
+            for (int i = 0; i < delimiter.length() && literal; i++) {
+                literal = REGEX_META_CHARS.indexOf(delimiter.charAt(i)) < 0;
+            }
+            pattern = literal ? null : Pattern.compile(delimiter);
         }
 
-        // 构建图
-        g = new Graph(st.size());
-        in = new In(url);
-        while (in.hasNextLine()) {
-            String[] a = in.readLine().split(delimiter);
-            Integer v = st.get(a[0]);
-            for (int i = 1; i < a.length; i++) {
-                Integer w = st.get(a[i]);
-                g.addEdge(v, w);
+        private String[] split(String line) {
+            if (pattern != null) return pattern.split(line);
+
+            List<String> fields = new ArrayList<>();
+            int start = 0;
+            for (int end; (end = line.indexOf(delimiter, start)) >= 0; start = end + delimiter.length()) {
+                fields.add(line.substring(start, end));
             }
+            fields.add(line.substring(start));
+            // 与String.split相同，去掉末尾的空字符串
+            int n = fields.size();
+            while (n > 0 && fields.get(n - 1).isEmpty()) {
+                n--;
+            }
+            return fields.subList(0, n).toArray(new String[0]);
         }
     }
 
     public boolean contains(String s) {
-        return st.containsKey(s);
+        return names.contains(s);
     }
 
+    // s不是顶点名称时返回-1
     public int indexOf(String s) {
-        return st.get(s);
+        return names.indexOf(s);
     }
 
     public String nameOf(int v) {
         validateVertex(v);
-        return keys[v];
+        return names.nameOf(v);
+    }
+
+    // 顶点名称不会再变化，用最小完美哈希代替名称的哈希表，contains和indexOf的结果不变
+    public void freeze() {
+        names.freeze();
+    }
+
+    // 将顶点名称(及冻结后的索引)写成文件，之后可以用StringDictionary(Path)内存映射打开
+    public void writeNames(Path path) {
+        names.write(path);
     }
 
     public Graph graph() {
         return g;
     }
 
+    // 名称为from和to的顶点之间的最短路径长度，不连通时为Integer.MAX_VALUE
+    public int distance(String from, String to) {
+        return new BidirectionalBFS(g, vertexOf(from), vertexOf(to)).distance();
+    }
+
+    // 名称为from和to的顶点之间的最短路径上依次经过的顶点名称，不连通时返回null
+    public Iterable<String> shortestPath(String from, String to) {
+        Iterable<Integer> path = new BidirectionalBFS(g, vertexOf(from), vertexOf(to)).path();
+        if (path == null) {
+            return null;
+        }
+        List<String> result = new ArrayList<>();
+        for (int v : path) {
+            result.add(names.nameOf(v));
+        }
+        return result;
+    }
+
+    private int vertexOf(String name) {
+        int v = names.indexOf(name);
+        if (v == -1) {
+            throw new IllegalArgumentException("'" + name + "' is not a vertex");
+        }
+        return v;
+    }
+
     private void validateVertex(int v) {
         int vertexCount = g.getVertexCount();
         if (v < 0 || v >= vertexCount) {
@@ -0,0 +1,138 @@
+package com.evan.algorithms.graphs.undirected;
+
+import java.util.Arrays;
+
+/**
+ * 图遍历使用的临时数组，每个线程缓存一份，重复遍历同样大小的图时不再分配数组。
+ * 访问标记用版本号实现：标记v时把stamp[v]设为当前版本，clear()只需增大版本号，不需要清空数组，
+ * 版本号用完时才真正清空一次。除了标记，还提供几个长度不小于顶点数的int数组，内容由使用者自行初始化。
+ * <pre>
+ * TraversalWorkspace ws = TraversalWorkspace.acquire(g.getVertexCount());
+ * try {
+ *     ...
+ * } finally {
+ *     ws.release();
+ * }
+ * </pre>
+ * 同一线程嵌套acquire时，内层得到一个不缓存的新实例，因此嵌套的遍历互不干扰。
+ * 顶点数超过MAX_CACHED_VERTICES时也不缓存，避免每个线程永久持有几个超大的数组；
+ * 线程不再遍历图时可以调用{@link #releaseCached()}释放缓存。
+ * <p>
+ * int数组按下标INT_0 ~ INT_3使用，用途由使用者决定。{@link DepthFirstTraversal}占用INT_0和INT_1，
+ * 作为路径和游标，直到工作区被释放；与它共用工作区的算法只能使用INT_2和INT_3，
+ * 误用被占用的数组会抛出IllegalStateException。不使用DepthFirstTraversal的算法(如BFS)可以使用全部四个
+ */
+public final class TraversalWorkspace {
+    private static final int SLOTS = 4; // int数组的个数
+    private static final int LABELS = 2; // 一次遍历中可用的标签个数
+    // 每个顶点最多占用20字节，超过这个顶点数的工作区用完即丢弃
+    private static final int MAX_CACHED_VERTICES = 1 << 22;
+    private static final ThreadLocal<TraversalWorkspace> CACHE = ThreadLocal.withInitial(TraversalWorkspace::new);
+
+    private int vertexCount;
+    private int[] stamp = new int[0];
+    // stamp[v]为epoch + label时v在本次遍历中带有标签label，小于epoch时未被标记
+    private int epoch = 1;
+    private final int[][] slots = new int[SLOTS][];
+    private boolean inUse;
+    private int reserved; // 被DepthFirstTraversal占用的数组，第slot位表示ints(slot)
+
+    public static final int INT_0 = 0;
+    public static final int INT_1 = 1;
+    public static final int INT_2 = 2;
+    public static final int INT_3 = 3;
+
+    private TraversalWorkspace() {
+    }
+
+    // 返回当前线程的工作区，所有顶点都未被标记
+    public static TraversalWorkspace acquire(int vertexCount) {
+        if (vertexCount < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        TraversalWorkspace ws = vertexCount > MAX_CACHED_VERTICES ? null : CACHE.get();
+        if (ws == null || ws.inUse) ws = new TraversalWorkspace();
+        ws.inUse = true;
+        ws.reserved = 0;
+        ws.resize(vertexCount);
+        ws.clear();
+        return ws;
+    }
+
+    // 使用完毕，之后不能再访问这个工作区及从它得到的数组
+    public void release() {
+        inUse = false;
+    }
+
+    // 丢弃当前线程缓存的工作区，之后的acquire重新分配数组；正在使用的工作区不受影响
+    public static void releaseCached() {
+        CACHE.remove();
+    }
+
+    private void resize(int vertexCount) {
+        this.vertexCount = vertexCount;
+        if (stamp.length < vertexCount) {
+            stamp = new int[vertexCount];
+            epoch = 1;
+            Arrays.fill(slots, null);
+        }
+    }
+
+    // O(1)地清除所有标记
+    public void clear() {
+        if (epoch > Integer.MAX_VALUE - 2 * LABELS) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        } else {
+            epoch += LABELS;
+        }
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public boolean isMarked(int v) {
+        return stamp[v] >= epoch;
+    }
+
+    public void mark(int v) {
+        stamp[v] = epoch;
+    }
+
+    public void unmark(int v) {
+        stamp[v] = 0;
+    }
+
+    // 用label(0或1)标记v，例如双向搜索中区分两侧访问到的顶点
+    public void mark(int v, int label) {
+        stamp[v] = epoch + label;
+    }
+
+    // v的标签，未被标记时返回-1
+    public int label(int v) {
+        int label = stamp[v] - epoch;
+        return label < 0 ? -1 : label;
+    }
+
+    // 第slot(0 ~ 3)个临时数组，长度不小于顶点数，内容不会被清空；
+    // 数组已被DepthFirstTraversal占用时抛出IllegalStateException
+    public int[] ints(int slot) {
+        if ((reserved & (1 << slot)) != 0)
+            throw new IllegalStateException("int array " + slot + " is reserved by DepthFirstTraversal");
+        return array(slot);
+    }
+
+    // DepthFirstTraversal占用第slot个数组，直到工作区被释放
+    int[] reserve(int slot) {
+        reserved |= 1 << slot;
+        return array(slot);
+    }
+
+    private int[] array(int slot) {
+        int[] a = slots[slot];
+        if (a == null || a.length < vertexCount) {
+            a = new int[stamp.length];
+            slots[slot] = a;
+        }
+        return a;
+    }
+}
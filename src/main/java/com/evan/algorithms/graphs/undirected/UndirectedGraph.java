@@ -0,0 +1,19 @@
+package com.evan.algorithms.graphs.undirected;
+
+/**
+ * 无向图的只读视图，图算法只依赖这些方法，因此可以运行在不同的存储结构上，
+ * 如链表实现的{@link Graph}和压缩稀疏行实现的{@link CsrGraph}
+ */
+public interface UndirectedGraph {
+
+    int getVertexCount();
+
+    int getEdgeCount();
+
+    Iterable<Integer> adj(int v);
+
+    // 按adj(v)的迭代顺序返回v的第i个相邻顶点，0 <= i < degree(v)，不装箱
+    int adj(int v, int i);
+
+    int degree(int v);
+}
@@ -0,0 +1,393 @@
+package com.evan.algorithms.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ *  Byte-level tokenizer behind the high-throughput mode of {@link In}.
+ *  <p>
+ *  Input is read into one reusable byte buffer and numbers are parsed
+ *  directly from the ASCII digits in that buffer, so {@code readInt()},
+ *  {@code readLong()} and (in the common case) {@code readDouble()} allocate
+ *  nothing per token. A token is always kept contiguous in the buffer; the
+ *  buffer is compacted, or grown for very long tokens, as needed.
+ *  <p>
+ *  Whitespace is restricted to the ASCII characters for which
+ *  {@link Character#isWhitespace(char)} is true, text is decoded as UTF-8,
+ *  and numbers must be plain ASCII literals (no locale grouping separators).
+ */
+final class ByteTokenizer {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // 10^0 .. 10^22 are exactly representable as doubles
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    private final InputStream in;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private long discarded; // number of bytes dropped from the front of the buffer
+
+    // bounds of the last token returned by nextToken()
+    private int tokenStart;
+    private int tokenEnd;
+
+    // low surrogate left over from a supplementary character in readChar()
+    private char pendingLowSurrogate;
+
+    ByteTokenizer(InputStream in) {
+        this.in = in;
+    }
+
+    static boolean isWhitespace(int b) {
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F);
+    }
+
+    // makes sure buffer[pos + k] is available; returns false at end of input
+    private boolean ensure(int k) {
+        while (limit - pos <= k) {
+            if (eof) return false;
+            if (pos > 0) {
+                System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+                discarded += pos;
+                limit -= pos;
+                tokenStart -= pos;
+                tokenEnd -= pos;
+                pos = 0;
+            }
+            if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+            }
+            try {
+                int n = in.read(buffer, limit, buffer.length - limit);
+                if (n < 0) eof = true;
+                else limit += n;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return true;
+    }
+
+    // looks for a next token without consuming anything
+    private boolean hasNextToken() {
+        for (int k = 0; ensure(k); k++) {
+            if (!isWhitespace(buffer[pos + k])) return true;
+        }
+        return false;
+    }
+
+    // consumes leading whitespace and the next token, which ends up in buffer[tokenStart..tokenEnd)
+    private boolean nextToken() {
+        while (ensure(0) && isWhitespace(buffer[pos])) {
+            pos++;
+        }
+        if (!ensure(0)) return false;
+        int k = 0;
+        while (ensure(k) && !isWhitespace(buffer[pos + k])) {
+            k++;
+        }
+        tokenStart = pos;
+        tokenEnd = pos + k;
+        pos = tokenEnd;
+        return true;
+    }
+
+    private String token() {
+        return new String(buffer, tokenStart, tokenEnd - tokenStart, StandardCharsets.UTF_8);
+    }
+
+    // number of bytes consumed from the underlying stream so far
+    long position() {
+        return discarded + pos;
+    }
+
+    // treats the rest of the input as consumed, after it has been read by other means
+    void skipToEnd() {
+        discarded += limit;
+        pos = limit = 0;
+        eof = true;
+        pendingLowSurrogate = 0;
+    }
+
+    boolean isEmpty() {
+        return !hasNextToken();
+    }
+
+    boolean hasNextLine() {
+        return pendingLowSurrogate != 0 || ensure(0);
+    }
+
+    boolean hasNextChar() {
+        return hasNextLine();
+    }
+
+    String readLine() {
+        if (!hasNextLine()) return null;
+        StringBuilder prefix = null;
+        if (pendingLowSurrogate != 0) {
+            prefix = new StringBuilder().append(pendingLowSurrogate);
+            pendingLowSurrogate = 0;
+        }
+        int k = 0;
+        while (ensure(k) && buffer[pos + k] != '\n' && buffer[pos + k] != '\r') {
+            k++;
+        }
+        String line = new String(buffer, pos, k, StandardCharsets.UTF_8);
+        pos += k;
+        if (ensure(0)) {
+            if (buffer[pos++] == '\r' && ensure(0) && buffer[pos] == '\n') pos++;
+        }
+        return prefix == null ? line : prefix.append(line).toString();
+    }
+
+    char readChar() {
+        if (pendingLowSurrogate != 0) {
+            char c = pendingLowSurrogate;
+            pendingLowSurrogate = 0;
+            return c;
+        }
+        if (!ensure(0)) {
+            throw new NoSuchElementException("attempts to read a 'char' value from the input stream, "
+                                           + "but no more tokens are available");
+        }
+        int b = buffer[pos] & 0xFF;
+        int length = b < 0x80 ? 1 : b < 0xE0 ? 2 : b < 0xF0 ? 3 : 4;
+        ensure(length - 1);
+        length = Math.min(length, limit - pos);
+        String s = new String(buffer, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        if (s.length() > 1) pendingLowSurrogate = s.charAt(1);
+        return s.charAt(0);
+    }
+
+    String readAll() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StringBuilder prefix = new StringBuilder();
+        if (pendingLowSurrogate != 0) {
+            prefix.append(pendingLowSurrogate);
+            pendingLowSurrogate = 0;
+        }
+        while (ensure(0)) {
+            out.write(buffer, pos, limit - pos);
+            pos = limit;
+        }
+        return prefix.append(out.toString(StandardCharsets.UTF_8)).toString();
+    }
+
+    String readString() {
+        if (!nextToken()) {
+            throw new NoSuchElementException("attempts to read a 'String' value from the input stream, "
+                                           + "but no more tokens are available");
+        }
+        return token();
+    }
+
+    int readInt() {
+        if (!nextToken()) {
+            throw new NoSuchElementException("attemps to read an 'int' value from the input stream, "
+                                           + "but no more tokens are available");
+        }
+        return (int) parseLong(Integer.MIN_VALUE, Integer.MAX_VALUE, "an 'int'");
+    }
+
+    long readLong() {
+        if (!nextToken()) {
+            throw new NoSuchElementException("attemps to read a 'long' value from the input stream, "
+                                           + "but no more tokens are available");
+        }
+        return parseLong(Long.MIN_VALUE, Long.MAX_VALUE, "a 'long'");
+    }
+
+    short readShort() {
+        int value = readInt();
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new InputMismatchException("attempts to read a 'short' value from the input stream, "
+                                           + "but the next token is \"" + value + "\"");
+        }
+        return (short) value;
+    }
+
+    byte readByte() {
+        int value = readInt();
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw new InputMismatchException("attempts to read a 'byte' value from the input stream, "
+                                           + "but the next token is \"" + value + "\"");
+        }
+        return (byte) value;
+    }
+
+    double readDouble() {
+        if (!nextToken()) {
+            throw new NoSuchElementException("attemps to read a 'double' value from the input stream, "
+                                           + "but no more tokens are available");
+        }
+        return parseDouble();
+    }
+
+    float readFloat() {
+        String token = readString();
+        try {
+            return Float.parseFloat(token);
+        }
+        catch (NumberFormatException e) {
+            throw new InputMismatchException("attempts to read a 'float' value from the input stream, "
+                                           + "but the next token is \"" + token + "\"");
+        }
+    }
+
+    String[] readAllStrings() {
+        ArrayList<String> tokens = new ArrayList<String>();
+        while (nextToken()) {
+            tokens.add(token());
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    int[] readAllInts() {
+        int[] vals = new int[16];
+        int n = 0;
+        while (hasNextToken()) {
+            if (n == vals.length) vals = Arrays.copyOf(vals, 2 * n);
+            vals[n++] = readInt();
+        }
+        return Arrays.copyOf(vals, n);
+    }
+
+    long[] readAllLongs() {
+        long[] vals = new long[16];
+        int n = 0;
+        while (hasNextToken()) {
+            if (n == vals.length) vals = Arrays.copyOf(vals, 2 * n);
+            vals[n++] = readLong();
+        }
+        return Arrays.copyOf(vals, n);
+    }
+
+    double[] readAllDoubles() {
+        double[] vals = new double[16];
+        int n = 0;
+        while (hasNextToken()) {
+            if (n == vals.length) vals = Arrays.copyOf(vals, 2 * n);
+            vals[n++] = readDouble();
+        }
+        return Arrays.copyOf(vals, n);
+    }
+
+    void close() {
+        try {
+            in.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // parses the current token as an integer in [min, max], in the same way as Long.parseLong
+    private long parseLong(long min, long max, String type) {
+        int i = tokenStart;
+        boolean negative = false;
+        if (buffer[i] == '-' || buffer[i] == '+') {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        if (i == tokenEnd) throw mismatch(type);
+
+        // accumulate negatively so that the most negative value does not overflow
+        long limit = negative ? min : -max;
+        long multiplyMin = limit / 10;
+        long value = 0;
+        for (; i < tokenEnd; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9 || value < multiplyMin) throw mismatch(type);
+            value *= 10;
+            if (value < limit + digit) throw mismatch(type);
+            value -= digit;
+        }
+        return negative ? value : -value;
+    }
+
+    private InputMismatchException mismatch(String type) {
+        return new InputMismatchException("attempts to read " + type + " value from the input stream, "
+                                        + "but the next token is \"" + token() + "\"");
+    }
+
+    // exact fast path for short decimal literals, Double.parseDouble for everything else
+    private double parseDouble() {
+        int i = tokenStart;
+        boolean negative = false;
+        if (buffer[i] == '-' || buffer[i] == '+') {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < tokenEnd; i++) {
+            byte b = buffer[i];
+            if (b >= '0' && b <= '9') {
+                seenDigit = true;
+                if (mantissa != 0 || b != '0') digits++;
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenPoint) scale--;
+                if (digits > 15) return slowParseDouble();
+            }
+            else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            }
+            else break;
+        }
+        if (!seenDigit) return slowParseDouble();
+        if (i < tokenEnd) {
+            if (buffer[i] != 'e' && buffer[i] != 'E') return slowParseDouble();
+            int exponent = 0;
+            boolean negativeExponent = false;
+            i++;
+            if (i < tokenEnd && (buffer[i] == '-' || buffer[i] == '+')) {
+                negativeExponent = buffer[i] == '-';
+                i++;
+            }
+            if (i == tokenEnd || tokenEnd - i > 3) return slowParseDouble();
+            for (; i < tokenEnd; i++) {
+                int digit = buffer[i] - '0';
+                if (digit < 0 || digit > 9) return slowParseDouble();
+                exponent = exponent * 10 + digit;
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        if (scale < -22 || scale > 22) return slowParseDouble();
+
+        double value = scale < 0 ? mantissa / POWERS_OF_TEN[-scale] : mantissa * POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private double slowParseDouble() {
+        String token = token();
+        try {
+            return Double.parseDouble(token);
+        }
+        catch (NumberFormatException e) {
+            throw new InputMismatchException("attempts to read a 'double' value from the input stream, "
+                                           + "but the next token is \"" + token + "\"");
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.evan.algorithms.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ *  Buffered byte-level writer behind the high-throughput mode of {@link StdOut}.
+ *  <p>
+ *  Output is collected in one large direct buffer and only written to the
+ *  channel when the buffer is full or {@link #flush()} is called. Integers,
+ *  longs and the common doubles are formatted by writing their digits
+ *  straight into the buffer, so printing them allocates nothing. Text is
+ *  encoded as UTF-8.
+ *  <p>
+ *  All methods are synchronized, so the buffer can be flushed from another
+ *  thread (periodically, or on shutdown) while the program is printing.
+ */
+final class ByteWriter {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private static final byte[] NEWLINE = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    // 10^0 .. 10^22 are exactly representable as doubles
+    private static final double[] POWERS_OF_TEN = new double[23];
+    private static final long[] LONG_POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+        LONG_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < LONG_POWERS_OF_TEN.length; i++) {
+            LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    // digits are produced backwards into this scratch array
+    private final byte[] digits = new byte[20];
+
+    ByteWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    // makes room for at least k bytes
+    private void reserve(int k) {
+        if (buffer.remaining() < k) drain();
+    }
+
+    private void drain() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            buffer.clear();
+        }
+    }
+
+    synchronized void flush() {
+        if (buffer.position() > 0) drain();
+    }
+
+    synchronized void newLine() {
+        reserve(NEWLINE.length);
+        buffer.put(NEWLINE);
+    }
+
+    synchronized void print(String s) {
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                // rare: let the JDK encode the remaining non-ASCII text
+                put(s.substring(i).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            reserve(1);
+            buffer.put((byte) c);
+        }
+    }
+
+    private void put(byte[] bytes) {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) drain();
+            int n = Math.min(bytes.length - offset, buffer.remaining());
+            buffer.put(bytes, offset, n);
+            offset += n;
+        }
+    }
+
+    synchronized void print(char c) {
+        if (c < 0x80) {
+            reserve(1);
+            buffer.put((byte) c);
+        }
+        else print(String.valueOf(c));
+    }
+
+    synchronized void print(long x) {
+        reserve(digits.length);
+        // work with the negative value so that Long.MIN_VALUE needs no special case
+        long q = x < 0 ? x : -x;
+        int i = digits.length;
+        do {
+            digits[--i] = (byte) ('0' - q % 10);
+            q /= 10;
+        } while (q != 0);
+        if (x < 0) digits[--i] = '-';
+        buffer.put(digits, i, digits.length - i);
+    }
+
+    /**
+     * Prints the same characters as {@link Double#toString(double)} for values
+     * in the plain-decimal range [10^-3, 10^7) that have at most 15 significant
+     * digits; all other values are delegated to {@code Double.toString}.
+     */
+    synchronized void print(double x) {
+        if (x == 0) {
+            print(1 / x < 0 ? "-0.0" : "0.0");
+            return;
+        }
+        double abs = Math.abs(x);
+        if (abs >= 1e-3 && abs < 1e7) {
+            // abs has exponent digits before (or -exponent zeros after) the decimal point
+            int exponent = (int) Math.floor(Math.log10(abs)) + 1;
+            // use the fewest decimals that still read back as exactly x
+            for (int scale = 0; scale + exponent <= 15; scale++) {
+                long m = Math.round(abs * POWERS_OF_TEN[scale]);
+                if (m / POWERS_OF_TEN[scale] == abs) {
+                    printDecimal(x < 0, m, scale);
+                    return;
+                }
+            }
+        }
+        print(Double.toString(x));
+    }
+
+    // prints m / 10^scale with scale decimals, or with ".0" if scale is 0
+    private void printDecimal(boolean negative, long m, int scale) {
+        reserve(2 * digits.length + 2);
+        if (negative) buffer.put((byte) '-');
+        print(m / LONG_POWERS_OF_TEN[scale]);
+        buffer.put((byte) '.');
+        if (scale == 0) {
+            buffer.put((byte) '0');
+            return;
+        }
+        long fraction = m % LONG_POWERS_OF_TEN[scale];
+        int i = digits.length;
+        for (int k = 0; k < scale; k++) {
+            digits[--i] = (byte) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        buffer.put(digits, i, scale);
+    }
+
+    // each println appends the value and the line separator under one lock,
+    // so lines printed concurrently are never interleaved
+
+    synchronized void println(String s) {
+        print(s);
+        newLine();
+    }
+
+    synchronized void println(char c) {
+        print(c);
+        newLine();
+    }
+
+    synchronized void println(long x) {
+        print(x);
+        newLine();
+    }
+
+    synchronized void println(double x) {
+        print(x);
+        newLine();
+    }
+
+    void close() {
+        flush();
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
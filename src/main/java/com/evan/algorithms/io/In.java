@@ -14,6 +14,7 @@ import java.net.Socket;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.*;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 /**
@@ -69,6 +70,12 @@ public final class In {
 
     private Scanner scanner;
 
+    // set instead of scanner in the high-throughput mode; see fast(InputStream)
+    private ByteTokenizer tokenizer;
+
+    // file behind the tokenizer, if any; enables the parallel readAll methods
+    private File file;
+
    /**
      * Initializes an input stream from standard input.
      */
@@ -204,13 +211,112 @@ public final class In {
         this.scanner = scanner;
     }
 
+    /**
+     * Returns an input stream that reads from the given stream in the
+     * high-throughput mode. This mode offers the same methods but parses
+     * numbers directly from a large reusable byte buffer instead of going
+     * through {@link Scanner}, so reading an {@code int}, {@code long} or
+     * {@code double} does not allocate a {@code String} per token.
+     * <p>
+     * Unlike the default mode, whitespace is limited to ASCII whitespace
+     * and numbers must be plain ASCII literals without grouping separators.
+     *
+     * @param  is the input stream
+     * @return an input stream in the high-throughput mode
+     * @throws IllegalArgumentException if {@code is} is {@code null}
+     */
+    public static In fast(InputStream is) {
+        if (is == null) throw new IllegalArgumentException("input stream argument is null");
+        return new In(new ByteTokenizer(is));
+    }
+
+    /**
+     * Returns an input stream that reads from a file in the high-throughput
+     * mode; see {@link #fast(InputStream)}. In addition, {@link #readAllInts()}
+     * and {@link #readAllDoubles()} memory-map the rest of the file and parse
+     * it in parallel; see {@link #supportsParallelRead()}.
+     *
+     * @param  file the file
+     * @return an input stream in the high-throughput mode
+     * @throws IllegalArgumentException if cannot open {@code file}
+     * @throws IllegalArgumentException if {@code file} is {@code null}
+     */
+    public static In fast(File file) {
+        if (file == null) throw new IllegalArgumentException("file argument is null");
+        try {
+            In in = fast(new FileInputStream(file));
+            in.file = file;
+            return in;
+        }
+        catch (IOException ioe) {
+            throw new IllegalArgumentException("Could not open " + file, ioe);
+        }
+    }
+
+    /**
+     * Returns an input stream that reads from a URL in the high-throughput
+     * mode; see {@link #fast(InputStream)}.
+     *
+     * @param  url the URL
+     * @return an input stream in the high-throughput mode
+     * @throws IllegalArgumentException if cannot open {@code url}
+     * @throws IllegalArgumentException if {@code url} is {@code null}
+     */
+    public static In fast(URL url) {
+        if (url == null) throw new IllegalArgumentException("url argument is null");
+        try {
+            return fast(url.openConnection().getInputStream());
+        }
+        catch (IOException ioe) {
+            throw new IllegalArgumentException("Could not open " + url, ioe);
+        }
+    }
+
+    /**
+     * Splits a file into chunks of whole lines and applies {@code parser} to
+     * each chunk concurrently, with each chunk given as an input stream in
+     * the high-throughput mode (see {@link #fast(InputStream)}). Chunks are
+     * memory-mapped, so the file is read only once.
+     *
+     * @param  <T> the type of the per-chunk result
+     * @param  file the file
+     * @param  parser reads one chunk and returns its result
+     * @return the results of all chunks, in file order
+     * @throws IllegalArgumentException if cannot read {@code file}
+     * @throws IllegalArgumentException if {@code file} or {@code parser} is {@code null}
+     */
+    public static <T> List<T> parseLinesInParallel(File file, Function<In, T> parser) {
+        if (file == null) throw new IllegalArgumentException("file argument is null");
+        if (parser == null) throw new IllegalArgumentException("parser argument is null");
+        return ParallelParser.parseLines(file.toPath(), tokenizer -> parser.apply(new In(tokenizer)));
+    }
+
+    private In(ByteTokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Returns true if {@link #readAllInts()} and {@link #readAllDoubles()}
+     * parse the rest of the input in parallel. This is the case for an input
+     * stream returned by {@link #fast(File)}: the remainder of the file is
+     * split at whitespace into chunks that are memory-mapped and parsed
+     * concurrently, then stitched together in order, without reading the
+     * input into a {@code String} first.
+     *
+     * @return {@code true} if the readAll methods for numbers run in parallel;
+     *         {@code false} otherwise
+     */
+    public boolean supportsParallelRead() {
+        return tokenizer != null && file != null;
+    }
+
     /**
      * Returns true if this input stream exists.
      *
      * @return {@code true} if this input stream exists; {@code false} otherwise
      */
     public boolean exists()  {
-        return scanner != null;
+        return scanner != null || tokenizer != null;
     }
 
     ////  begin: section (2 of 2) of code duplicated from In to StdIn,
@@ -225,6 +331,7 @@ public final class In {
      *         {@code false} otherwise
      */
     public boolean isEmpty() {
+        if (tokenizer != null) return tokenizer.isEmpty();
         return !scanner.hasNext();
     }
 
@@ -238,6 +345,7 @@ public final class In {
      *         {@code false} otherwise
      */
     public boolean hasNextLine() {
+        if (tokenizer != null) return tokenizer.hasNextLine();
         return scanner.hasNextLine();
     }
 
@@ -250,6 +358,7 @@ public final class In {
      *         {@code false} otherwise
      */
     public boolean hasNextChar() {
+        if (tokenizer != null) return tokenizer.hasNextChar();
         scanner.useDelimiter(EMPTY_PATTERN);
         boolean result = scanner.hasNext();
         scanner.useDelimiter(WHITESPACE_PATTERN);
@@ -263,6 +372,7 @@ public final class In {
      * @return the next line in this input stream; {@code null} if no such line
      */
     public String readLine() {
+        if (tokenizer != null) return tokenizer.readLine();
         String line;
         try {
             line = scanner.nextLine();
@@ -280,6 +390,7 @@ public final class In {
      * @throws NoSuchElementException if the input stream is empty
      */
     public char readChar() {
+        if (tokenizer != null) return tokenizer.readChar();
         scanner.useDelimiter(EMPTY_PATTERN);
         try {
             String ch = scanner.next();
@@ -301,6 +412,7 @@ public final class In {
      * @return the remainder of this input stream, as a string
      */
     public String readAll() {
+        if (tokenizer != null) return tokenizer.readAll();
         if (!scanner.hasNextLine())
             return "";
 
@@ -318,6 +430,7 @@ public final class In {
      * @throws NoSuchElementException if the input stream is empty
      */
     public String readString() {
+        if (tokenizer != null) return tokenizer.readString();
         try {
             return scanner.next();
         }
@@ -336,6 +449,7 @@ public final class In {
      * @throws InputMismatchException if the next token cannot be parsed as an {@code int}
      */
     public int readInt() {
+        if (tokenizer != null) return tokenizer.readInt();
         try {
             return scanner.nextInt();
         }
@@ -359,6 +473,7 @@ public final class In {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code double}
      */
     public double readDouble() {
+        if (tokenizer != null) return tokenizer.readDouble();
         try {
             return scanner.nextDouble();
         }
@@ -382,6 +497,7 @@ public final class In {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code float}
      */
     public float readFloat() {
+        if (tokenizer != null) return tokenizer.readFloat();
         try {
             return scanner.nextFloat();
         }
@@ -405,6 +521,7 @@ public final class In {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code long}
      */
     public long readLong() {
+        if (tokenizer != null) return tokenizer.readLong();
         try {
             return scanner.nextLong();
         }
@@ -428,6 +545,7 @@ public final class In {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code short}
      */
     public short readShort() {
+        if (tokenizer != null) return tokenizer.readShort();
         try {
             return scanner.nextShort();
         }
@@ -453,6 +571,7 @@ public final class In {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code byte}
      */
     public byte readByte() {
+        if (tokenizer != null) return tokenizer.readByte();
         try {
             return scanner.nextByte();
         }
@@ -499,6 +618,7 @@ public final class In {
      * @return all remaining tokens in this input stream, as an array of strings
      */
     public String[] readAllStrings() {
+        if (tokenizer != null) return tokenizer.readAllStrings();
         // we could use readAll.trim().split(), but that's not consistent
         // since trim() uses characters 0x00..0x20 as whitespace
         String[] tokens = WHITESPACE_PATTERN.split(readAll());
@@ -532,6 +652,12 @@ public final class In {
      * @return all remaining lines in this input stream, as an array of integers
      */
     public int[] readAllInts() {
+        if (supportsParallelRead()) {
+            int[] vals = ParallelParser.readAllInts(file.toPath(), tokenizer.position());
+            tokenizer.skipToEnd();
+            return vals;
+        }
+        if (tokenizer != null) return tokenizer.readAllInts();
         String[] fields = readAllStrings();
         int[] vals = new int[fields.length];
         for (int i = 0; i < fields.length; i++)
@@ -546,6 +672,7 @@ public final class In {
      * @return all remaining lines in this input stream, as an array of longs
      */
     public long[] readAllLongs() {
+        if (tokenizer != null) return tokenizer.readAllLongs();
         String[] fields = readAllStrings();
         long[] vals = new long[fields.length];
         for (int i = 0; i < fields.length; i++)
@@ -560,6 +687,12 @@ public final class In {
      * @return all remaining lines in this input stream, as an array of doubles
      */
     public double[] readAllDoubles() {
+        if (supportsParallelRead()) {
+            double[] vals = ParallelParser.readAllDoubles(file.toPath(), tokenizer.position());
+            tokenizer.skipToEnd();
+            return vals;
+        }
+        if (tokenizer != null) return tokenizer.readAllDoubles();
         String[] fields = readAllStrings();
         double[] vals = new double[fields.length];
         for (int i = 0; i < fields.length; i++)
@@ -573,7 +706,8 @@ public final class In {
      * Closes this input stream.
      */
     public void close() {
-        scanner.close();
+        if (tokenizer != null) tokenizer.close();
+        else scanner.close();
     }
 
     /**
@@ -0,0 +1,148 @@
+package com.evan.algorithms.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ *  Parses the remainder of a file into a primitive array using all cores.
+ *  <p>
+ *  The file is split into chunks of about {@code CHUNK_SIZE} bytes whose
+ *  boundaries are moved forward to the next token (or line) start, so every
+ *  token lies entirely within one chunk. Each chunk is memory-mapped and parsed
+ *  independently by a {@link ByteTokenizer}, and the per-chunk arrays are
+ *  then copied into the result in file order. Neither the file contents nor
+ *  the tokens are ever materialized as {@code String}s.
+ */
+final class ParallelParser {
+
+    private static final int CHUNK_SIZE = 1 << 22;
+
+    private ParallelParser() { }
+
+    /**
+     * Parses all tokens of {@code path} from byte offset {@code position} on as integers.
+     */
+    static int[] readAllInts(Path path, long position) {
+        int[][] parts = parse(path, position, ByteTokenizer::isWhitespace, ByteTokenizer::readAllInts, int[][]::new);
+        int[] offsets = offsets(parts.length, i -> parts[i].length);
+        int[] vals = new int[offsets[parts.length]];
+        IntStream.range(0, parts.length).parallel().forEach(i ->
+                System.arraycopy(parts[i], 0, vals, offsets[i], parts[i].length));
+        return vals;
+    }
+
+    /**
+     * Parses all tokens of {@code path} from byte offset {@code position} on as doubles.
+     */
+    static double[] readAllDoubles(Path path, long position) {
+        double[][] parts = parse(path, position, ByteTokenizer::isWhitespace, ByteTokenizer::readAllDoubles,
+                                 double[][]::new);
+        int[] offsets = offsets(parts.length, i -> parts[i].length);
+        double[] vals = new double[offsets[parts.length]];
+        IntStream.range(0, parts.length).parallel().forEach(i ->
+                System.arraycopy(parts[i], 0, vals, offsets[i], parts[i].length));
+        return vals;
+    }
+
+    /**
+     * Applies {@code parser} to chunks of whole lines of {@code path} in parallel
+     * and returns the results in file order.
+     */
+    static <T> List<T> parseLines(Path path, Function<ByteTokenizer, T> parser) {
+        @SuppressWarnings("unchecked")
+        T[] parts = parse(path, 0, b -> b == '\n', parser, n -> (T[]) new Object[n]);
+        return Arrays.asList(parts);
+    }
+
+    // offsets[i] = index of the first value of chunk i in the result
+    private static int[] offsets(int n, IntUnaryOperator length) {
+        int[] offsets = new int[n + 1];
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            total += length.applyAsInt(i);
+            if (total > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("too many tokens to fit in an array");
+            offsets[i + 1] = (int) total;
+        }
+        return offsets;
+    }
+
+    private static <T> T[] parse(Path path, long position, IntPredicate isDelimiter,
+                                 Function<ByteTokenizer, T> parser, IntFunction<T[]> newArray) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = bounds(channel, Math.min(position, size), size, isDelimiter);
+            int chunks = bounds.length - 1;
+            return ForkJoinPool.commonPool().submit(() ->
+                    IntStream.range(0, chunks).parallel().mapToObj(i -> {
+                        ByteTokenizer tokenizer = new ByteTokenizer(map(channel, bounds[i], bounds[i + 1]));
+                        return parser.apply(tokenizer);
+                    }).toArray(newArray)).join();
+        }
+        catch (IOException ioe) {
+            throw new IllegalArgumentException("Could not read " + path, ioe);
+        }
+    }
+
+    // chunk i covers bytes [bounds[i], bounds[i + 1]); every bound but the first follows a delimiter or is the end
+    private static long[] bounds(FileChannel channel, long start, long size, IntPredicate isDelimiter)
+            throws IOException {
+        int chunks = (int) Math.max(1, (size - start + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        long[] bounds = new long[chunks + 1];
+        bounds[0] = start;
+        bounds[chunks] = size;
+        ByteBuffer probe = ByteBuffer.allocate(256);
+        for (int i = 1; i < chunks; i++) {
+            long p = Math.max(start + (long) i * CHUNK_SIZE, bounds[i - 1]);
+            // move forward until the previous byte is a delimiter, so that no token is cut in two
+            while (p > start && p < size) {
+                probe.clear();
+                int n = channel.read(probe, p - 1);
+                if (n <= 0) break;
+                int k = 0;
+                while (k < n && !isDelimiter.test(probe.get(k))) k++;
+                p += k;
+                if (k < n) break;
+            }
+            bounds[i] = Math.min(p, size);
+        }
+        return bounds;
+    }
+
+    private static InputStream map(FileChannel channel, long from, long to) {
+        ByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        }
+        catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+        return new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (!buffer.hasRemaining()) return -1;
+                int n = Math.min(len, buffer.remaining());
+                buffer.get(b, off, n);
+                return n;
+            }
+        };
+    }
+}
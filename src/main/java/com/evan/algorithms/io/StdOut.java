@@ -12,6 +12,8 @@ package com.evan.algorithms.io;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.Locale;
 
 /**
@@ -53,6 +55,13 @@ import java.util.Locale;
  *       {@code print()} so that text will appear immediately in the terminal.
  *  </ul>
  *  <p>
+ *  <b>Buffered mode.</b>
+ *  Flushing after every call costs a system call per line, which dominates
+ *  when printing millions of lines. {@link #setBuffered(boolean)} switches to
+ *  a high-throughput mode that collects output in a large direct buffer,
+ *  formats numbers without allocating, and writes only when the buffer is
+ *  full, on {@link #flush()}, periodically, and when the JVM shuts down.
+ *  <p>
  *  <b>Reference.</b>
  *  For additional documentation,
  *  see <a href="https://introcs.cs.princeton.edu/15inout">Section 1.5</a> of
@@ -73,6 +82,15 @@ public final class StdOut {
     // send output here
     private static PrintWriter out;
 
+    // set instead of using out in the buffered mode; see setBuffered(boolean)
+    private static volatile ByteWriter writer;
+
+    // how often the buffered mode writes out pending output
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    // periodic flusher and shutdown hook, installed on first use of the buffered mode
+    private static boolean flushersInstalled;
+
     // this is called before invoking any methods
     static {
         try {
@@ -86,10 +104,92 @@ public final class StdOut {
     // don't instantiate
     private StdOut() { }
 
+   /**
+     * Switches between the default mode, which flushes after every call, and
+     * the buffered high-throughput mode.
+     * <p>
+     * In the buffered mode, output goes into a large direct buffer that is
+     * written to standard output only when it is full, when {@link #flush()}
+     * is called, every {@code FLUSH_INTERVAL_MILLIS} milliseconds, and when the
+     * JVM shuts down. Integers, longs and doubles are formatted directly into
+     * the buffer without creating a {@code String}. The printed text is the
+     * same as in the default mode, and each {@code println} writes its value
+     * and line separator atomically. Output goes to the {@link System#out}
+     * current at the time of the switch, so {@link System#setOut} is respected.
+     * Pending output is flushed when switching in either direction, so text
+     * from the two modes is never reordered; text printed directly with
+     * {@code System.out} while the buffered mode is on may appear before
+     * earlier {@code StdOut} output that is still in the buffer.
+     *
+     * @param buffered {@code true} to enable the buffered mode,
+     *                 {@code false} to return to flushing after every call
+     */
+    public static void setBuffered(boolean buffered) {
+        setBuffered(buffered ? Channels.newChannel(System.out) : null);
+    }
+
+    // the buffered mode writing to the given channel, or the default mode if channel is null;
+    // channel is only used if the buffered mode is not already on
+    static synchronized void setBuffered(WritableByteChannel channel) {
+        ByteWriter old = writer;
+        if ((channel != null) == (old != null)) return;
+        if (channel != null) {
+            out.flush();
+            System.out.flush();
+            writer = new ByteWriter(channel);
+            installFlushers();
+        }
+        else {
+            // retire the writer before flushing it; see flushIfRetired
+            writer = null;
+            old.flush();
+        }
+    }
+
+    // a print that raced with setBuffered(false) may have written into the
+    // retired writer after its final flush, so write that out now
+    private static void flushIfRetired(ByteWriter w) {
+        if (writer != w) w.flush();
+    }
+
+    private static void installFlushers() {
+        if (flushersInstalled) return;
+        flushersInstalled = true;
+        Thread flusher = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(FLUSH_INTERVAL_MILLIS);
+                }
+                catch (InterruptedException e) {
+                    return;
+                }
+                flush();
+            }
+        }, "StdOut-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(StdOut::flush, "StdOut-shutdown-flush"));
+    }
+
+   /**
+     * Writes out any output pending in the buffered mode and flushes standard output.
+     */
+    public static void flush() {
+        ByteWriter w = writer;
+        if (w != null) w.flush();
+        out.flush();
+    }
+
    /**
      * Terminates the current line by printing the line-separator string.
      */
     public static void println() {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.newLine();
+            flushIfRetired(w);
+            return;
+        }
         out.println();
     }
 
@@ -99,6 +199,12 @@ public final class StdOut {
      * @param x the object to print
      */
     public static void println(Object x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.println(String.valueOf(x));
+            flushIfRetired(w);
+            return;
+        }
         out.println(x);
     }
 
@@ -108,6 +214,12 @@ public final class StdOut {
      * @param x the boolean to print
      */
     public static void println(boolean x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.println(String.valueOf(x));
+            flushIfRetired(w);
+            return;
+        }
         out.println(x);
     }
 
@@ -117,6 +229,12 @@ public final class StdOut {
      * @param x the character to print
      */
     public static void println(char x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.println(x);
+            flushIfRetired(w);
+            return;
+        }
         out.println(x);
     }
 
@@ -126,6 +244,12 @@ public final class StdOut {
      * @param x the double to print
      */
     public static void println(double x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.println(x);
+            flushIfRetired(w);
+            return;
+        }
         out.println(x);
     }
 
@@ -135,6 +259,12 @@ public final class StdOut {
      * @param x the integer to print
      */
     public static void println(float x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.println(String.valueOf(x));
+            flushIfRetired(w);
+            return;
+        }
         out.println(x);
     }
 
@@ -144,6 +274,12 @@ public final class StdOut {
      * @param x the integer to print
      */
     public static void println(int x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.println((long) x);
+            flushIfRetired(w);
+            return;
+        }
         out.println(x);
     }
 
@@ -153,6 +289,12 @@ public final class StdOut {
      * @param x the long to print
      */
     public static void println(long x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.println(x);
+            flushIfRetired(w);
+            return;
+        }
         out.println(x);
     }
 
@@ -162,6 +304,12 @@ public final class StdOut {
      * @param x the short to print
      */
     public static void println(short x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.println((long) x);
+            flushIfRetired(w);
+            return;
+        }
         out.println(x);
     }
 
@@ -173,6 +321,12 @@ public final class StdOut {
      * @param x the byte to print
      */
     public static void println(byte x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.println((long) x);
+            flushIfRetired(w);
+            return;
+        }
         out.println(x);
     }
 
@@ -180,6 +334,8 @@ public final class StdOut {
      * Flushes standard output.
      */
     public static void print() {
+        ByteWriter w = writer;
+        if (w != null) w.flush();
         out.flush();
     }
 
@@ -189,6 +345,12 @@ public final class StdOut {
      * @param x the object to print
      */
     public static void print(Object x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.print(String.valueOf(x));
+            flushIfRetired(w);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -199,6 +361,12 @@ public final class StdOut {
      * @param x the boolean to print
      */
     public static void print(boolean x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.print(String.valueOf(x));
+            flushIfRetired(w);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -209,6 +377,12 @@ public final class StdOut {
      * @param x the character to print
      */
     public static void print(char x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.print(x);
+            flushIfRetired(w);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -219,6 +393,12 @@ public final class StdOut {
      * @param x the double to print
      */
     public static void print(double x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.print(x);
+            flushIfRetired(w);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -229,6 +409,12 @@ public final class StdOut {
      * @param x the float to print
      */
     public static void print(float x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.print(String.valueOf(x));
+            flushIfRetired(w);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -239,6 +425,12 @@ public final class StdOut {
      * @param x the integer to print
      */
     public static void print(int x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.print((long) x);
+            flushIfRetired(w);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -249,6 +441,12 @@ public final class StdOut {
      * @param x the long integer to print
      */
     public static void print(long x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.print(x);
+            flushIfRetired(w);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -259,6 +457,12 @@ public final class StdOut {
      * @param x the short integer to print
      */
     public static void print(short x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.print((long) x);
+            flushIfRetired(w);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -269,6 +473,12 @@ public final class StdOut {
      * @param x the byte to print
      */
     public static void print(byte x) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.print((long) x);
+            flushIfRetired(w);
+            return;
+        }
         out.print(x);
         out.flush();
     }
@@ -282,6 +492,12 @@ public final class StdOut {
      * @param args   the arguments accompanying the format string
      */
     public static void printf(String format, Object... args) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.print(String.format(LOCALE, format, args));
+            flushIfRetired(w);
+            return;
+        }
         out.printf(LOCALE, format, args);
         out.flush();
     }
@@ -295,6 +511,12 @@ public final class StdOut {
      * @param args   the arguments accompanying the format string
      */
     public static void printf(Locale locale, String format, Object... args) {
+        ByteWriter w = writer;
+        if (w != null) {
+            w.print(String.format(locale, format, args));
+            flushIfRetired(w);
+            return;
+        }
         out.printf(locale, format, args);
         out.flush();
     }
@@ -311,6 +533,14 @@ public final class StdOut {
         StdOut.println(17);
         StdOut.println(true);
         StdOut.printf("%.6f\n", 1.0/7.0);
+
+        // the same output in the buffered mode
+        StdOut.setBuffered(true);
+        StdOut.println("Test");
+        StdOut.println(17);
+        StdOut.println(true);
+        StdOut.printf("%.6f\n", 1.0/7.0);
+        StdOut.setBuffered(false);
     }
 
 }